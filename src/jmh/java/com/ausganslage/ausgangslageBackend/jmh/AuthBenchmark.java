@@ -0,0 +1,74 @@
+package com.ausganslage.ausgangslageBackend.jmh;
+
+import com.ausganslage.ausgangslageBackend.model.Person;
+import com.ausganslage.ausgangslageBackend.service.AuthService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code AuthService.authenticateUser} throughput per BCrypt cost, with the
+ * structured event log switched on and off. Sampled events go to the forked
+ * JVM's stdout, so expect JSON lines in the JMH output when events=true.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class AuthBenchmark {
+
+    private static final String EMAIL = "bench.login@example.com";
+    private static final String PASSWORD = "password123";
+
+    @Param({"4", "8", "10", "12"})
+    int cost;
+
+    @Param({"true", "false"})
+    boolean events;
+
+    private BenchmarkApp app;
+    private AuthService authService;
+
+    @Setup(Level.Trial)
+    public void seed() throws Exception {
+        app = BenchmarkApp.start(
+                "app.auth.bcrypt.strength=" + cost,
+                // Sample rates stay as in application.properties
+                "app.events.enabled=" + events,
+                // Deep queue so the benchmark measures hashing, not 503 rejections
+                "app.auth.hashing.queue-capacity=4096");
+        authService = app.bean(AuthService.class);
+        authService.registerUser("Bench", EMAIL, PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        app.close();
+    }
+
+    @Benchmark
+    public Person authenticate() throws Exception {
+        return authService.authenticateUser(EMAIL, PASSWORD);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Person authenticateConcurrently() throws Exception {
+        return authService.authenticateUser(EMAIL, PASSWORD);
+    }
+}
@@ -0,0 +1,115 @@
+package com.ausganslage.ausgangslageBackend.jmh;
+
+import com.ausganslage.ausgangslageBackend.AusgangslageBackendApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Starts the application without a web server on its own in-memory H2
+ * database and seeds it with plain JDBC batches, so that setup stays fast
+ * even at a million rows.
+ */
+final class BenchmarkApp implements AutoCloseable {
+
+    private static final int BATCH = 1_000;
+
+    final ConfigurableApplicationContext context;
+    final JdbcTemplate jdbc;
+    private final Random random = new Random(42);
+
+    private BenchmarkApp(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.jdbc = context.getBean(JdbcTemplate.class);
+    }
+
+    static BenchmarkApp start(String... properties) {
+        String[] defaults = {
+            "spring.datasource.url=jdbc:h2:mem:jmh-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+            "spring.main.banner-mode=off",
+            "spring.jmx.enabled=false",
+            "logging.level.root=warn",
+            "app.events.enabled=false"
+        };
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AusgangslageBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(Stream.concat(Stream.of(defaults), Stream.of(properties)).toArray(String[]::new))
+                .run();
+        return new BenchmarkApp(context);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    List<Long> seedPersons(int count) {
+        String prefix = UUID.randomUUID().toString().substring(0, 8);
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] {"Person " + i, prefix + "-" + i + "@bench.example"});
+            if (rows.size() == BATCH || i == count - 1) {
+                jdbc.batchUpdate("insert into person (name, email) values (?, ?)", rows);
+                rows.clear();
+            }
+        }
+        return jdbc.queryForList("select id from person where email like ? order by id", Long.class,
+                prefix + "-%");
+    }
+
+    List<Long> seedExams(int count, LocalDate firstDate) {
+        String prefix = "Bench " + UUID.randomUUID().toString().substring(0, 8);
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] {prefix + " " + i, firstDate.plusDays(i)});
+            if (rows.size() == BATCH || i == count - 1) {
+                jdbc.batchUpdate("insert into exam (title, date) values (?, ?)", rows);
+                rows.clear();
+            }
+        }
+        return jdbc.queryForList("select id from exam where title like ? order by id", Long.class, prefix + " %");
+    }
+
+    /**
+     * Inserts {@code count} graded results spread evenly over the given
+     * exams and persons, with ids taken from a block above the sequence.
+     */
+    void seedResults(int count, List<Long> examIds, List<Long> personIds) {
+        long firstId = jdbc.queryForObject("select coalesce(max(id), 0) from result", Long.class) + 1_000_000;
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (int i = 0; i < count; i++) {
+            Long examId = examIds.get(i / personIds.size() % examIds.size());
+            Long personId = personIds.get(i % personIds.size());
+            rows.add(new Object[] {firstId + i, examId, personId, 1 + random.nextInt(6)});
+            if (rows.size() == BATCH || i == count - 1) {
+                jdbc.batchUpdate("insert into result (id, exam_id, person_id, result) values (?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    void seedTodos(int count, List<Long> personIds, String[] words) {
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (int i = 0; i < count; i++) {
+            String title = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)]
+                    + " " + words[random.nextInt(words.length)] + " " + i;
+            rows.add(new Object[] {title, random.nextBoolean(), personIds.get(i % personIds.size())});
+            if (rows.size() == BATCH || i == count - 1) {
+                jdbc.batchUpdate("insert into todo (title, completed, person_id) values (?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,36 @@
+package com.ausganslage.ausgangslageBackend.jmh;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Entry point of the {@code jmh} Maven profile.
+ * Arguments: benchmark include regex and the JSON result file. Compare two
+ * result files (e.g. with jmh.morethan.ninja or a diff) to spot regressions.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = args.length > 0 ? args[0] : ".*";
+        Path result = Path.of(args.length > 1 ? args[1] : "target/jmh/results.json");
+        Files.createDirectories(result.toAbsolutePath().getParent());
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .shouldFailOnError(true)
+                .build();
+        new Runner(options).run();
+    }
+}
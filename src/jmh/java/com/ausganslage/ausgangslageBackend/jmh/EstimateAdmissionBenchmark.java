@@ -0,0 +1,98 @@
+package com.ausganslage.ausgangslageBackend.jmh;
+
+import com.ausganslage.ausgangslageBackend.exception.DuplicateDataException;
+import com.ausganslage.ausgangslageBackend.model.Estimate;
+import com.ausganslage.ausgangslageBackend.service.EstimateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Estimate admission ({@code POST /api/exams/{id}/estimates} without HTTP):
+ * the accepting path into a free slot, and the rejecting path when the slot
+ * is already taken, single-threaded and under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EstimateAdmissionBenchmark {
+
+    private static final int PERSONS = 100_000;
+
+    private BenchmarkApp app;
+    private EstimateService estimateService;
+    private List<Long> personIds;
+    private Long takenExamId;
+    private Long takenPersonId;
+
+    // A fresh exam per iteration so that every admit call finds a free slot
+    private Long freeExamId;
+    private final AtomicInteger nextPerson = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void seed() throws Exception {
+        app = BenchmarkApp.start();
+        estimateService = app.bean(EstimateService.class);
+        personIds = app.seedPersons(PERSONS);
+        takenExamId = app.seedExams(1, LocalDate.now().plusDays(30)).get(0);
+        takenPersonId = personIds.get(0);
+        estimateService.submitEstimate(takenExamId, takenPersonId, 4);
+    }
+
+    @Setup(Level.Iteration)
+    public void freshExam() {
+        freeExamId = app.seedExams(1, LocalDate.now().plusDays(30)).get(0);
+        nextPerson.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        app.close();
+    }
+
+    @Benchmark
+    public Estimate admit() throws Exception {
+        int index = nextPerson.getAndIncrement();
+        if (index >= PERSONS) {
+            throw new IllegalStateException("Increase PERSONS: iteration admitted more than " + PERSONS);
+        }
+        return estimateService.submitEstimate(freeExamId, personIds.get(index), 3);
+    }
+
+    @Benchmark
+    public Object rejectTakenSlot() throws Exception {
+        return rejectOnce();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object rejectTakenSlotContended() throws Exception {
+        return rejectOnce();
+    }
+
+    private Object rejectOnce() throws Exception {
+        try {
+            return estimateService.submitEstimate(takenExamId, takenPersonId, 3);
+        } catch (DuplicateDataException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.ausganslage.ausgangslageBackend.jmh;
+
+import com.ausganslage.ausgangslageBackend.controller.LeaderboardController.LeaderboardEntry;
+import com.ausganslage.ausgangslageBackend.exception.ServiceUnavailableException;
+import com.ausganslage.ausgangslageBackend.service.LeaderboardService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leaderboard at 10^3 to 10^6 results: full recompute from the database,
+ * reading the snapshot after a change, and the incremental hot path
+ * (delta + rank lookup).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LeaderboardBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    int results;
+
+    private BenchmarkApp app;
+    private LeaderboardService leaderboard;
+    private List<Long> personIds;
+
+    @Setup(Level.Trial)
+    public void seed() throws ServiceUnavailableException {
+        app = BenchmarkApp.start();
+        // 20 results per person, one result per person and exam
+        int persons = Math.max(50, results / 20);
+        personIds = app.seedPersons(persons);
+        List<Long> examIds = app.seedExams(Math.max(1, results / persons), LocalDate.now().minusYears(1));
+        app.seedResults(results, examIds, personIds);
+        leaderboard = app.bean(LeaderboardService.class);
+        leaderboard.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        app.close();
+    }
+
+    @Benchmark
+    public void rebuildFromDatabase() throws ServiceUnavailableException {
+        leaderboard.rebuild();
+    }
+
+    // Each invocation takes its delta back, so totals and index size stay those of the seed
+    @Benchmark
+    public List<LeaderboardEntry> snapshotAfterChange() {
+        Long personId = randomPerson();
+        leaderboard.applyDelta(personId, 10);
+        List<LeaderboardEntry> snapshot = leaderboard.getLeaderboard();
+        leaderboard.applyDelta(personId, -10);
+        return snapshot;
+    }
+
+    @Benchmark
+    public Optional<LeaderboardEntry> deltaAndRank() {
+        Long personId = randomPerson();
+        int delta = ThreadLocalRandom.current().nextBoolean() ? 10 : -10;
+        leaderboard.applyDelta(personId, delta);
+        Optional<LeaderboardEntry> rank = leaderboard.rankOf(personId);
+        leaderboard.applyDelta(personId, -delta);
+        return rank;
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> top10() {
+        return leaderboard.top(10);
+    }
+
+    private Long randomPerson() {
+        return personIds.get(ThreadLocalRandom.current().nextInt(personIds.size()));
+    }
+}
@@ -0,0 +1,125 @@
+package com.ausganslage.ausgangslageBackend.jmh;
+
+import com.ausganslage.ausgangslageBackend.config.ColumnarJsonHttpMessageConverter;
+import com.ausganslage.ausgangslageBackend.controller.LeaderboardController.LeaderboardEntry;
+import com.ausganslage.ausgangslageBackend.dto.ResultView;
+import com.ausganslage.ausgangslageBackend.repository.ResultRepository;
+import com.ausganslage.ausgangslageBackend.service.LeaderboardService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization CPU and payload size of the response formats the API can
+ * negotiate: JSON, Smile, CBOR and columnar JSON, each plain and gzipped
+ * the way Tomcat compresses responses. Uses the application's own mappers
+ * and converter. The payload size is reported next to the timing as the
+ * secondary result {@code bytes}, so it lands in the JSON result file too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    @Param({"1000"})
+    int size;
+
+    @Param({"json", "smile", "cbor", "columnar"})
+    String format;
+
+    @Param({"none", "gzip"})
+    String compression;
+
+    private BenchmarkApp app;
+    private PayloadWriter writer;
+    private List<ResultView> results;
+    private List<LeaderboardEntry> leaderboard;
+
+    @FunctionalInterface
+    private interface PayloadWriter {
+        void write(List<?> rows, OutputStream out) throws IOException;
+    }
+
+    // EVENTS are reported as-is rather than per second; one thread, so an iteration reports the last size
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void seed() throws Exception {
+        app = BenchmarkApp.start();
+        ObjectMapper json = app.bean(ObjectMapper.class);
+        ObjectMapper smile = app.bean(MappingJackson2SmileHttpMessageConverter.class).getObjectMapper();
+        ObjectMapper cbor = app.bean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper();
+        writer = switch (format) {
+            case "json" -> (rows, out) -> json.writeValue(out, rows);
+            case "smile" -> (rows, out) -> smile.writeValue(out, rows);
+            case "cbor" -> (rows, out) -> cbor.writeValue(out, rows);
+            case "columnar" -> new ColumnarJsonHttpMessageConverter(json)::write;
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+
+        List<Long> personIds = app.seedPersons(size);
+        Long exam = app.seedExams(1, LocalDate.now().minusDays(10)).get(0);
+        app.seedResults(size, List.of(exam), personIds);
+        results = app.bean(ResultRepository.class).findViewsByExamId(exam);
+        LeaderboardService leaderboardService = app.bean(LeaderboardService.class);
+        leaderboardService.rebuild();
+        leaderboard = leaderboardService.top(size);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        app.close();
+    }
+
+    @Benchmark
+    public byte[] results(PayloadSize payload) throws IOException {
+        byte[] bytes = serialize(results);
+        payload.bytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] leaderboard(PayloadSize payload) throws IOException {
+        byte[] bytes = serialize(leaderboard);
+        payload.bytes = bytes.length;
+        return bytes;
+    }
+
+    private byte[] serialize(List<?> rows) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        // Closing finishes the gzip trailer; the JSON writers may close it first, which is harmless
+        try (OutputStream out = "gzip".equals(compression) ? new GZIPOutputStream(bytes, 8192) : bytes) {
+            writer.write(rows, out);
+        }
+        return bytes.toByteArray();
+    }
+}
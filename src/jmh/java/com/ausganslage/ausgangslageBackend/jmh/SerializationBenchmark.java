@@ -0,0 +1,93 @@
+package com.ausganslage.ausgangslageBackend.jmh;
+
+import com.ausganslage.ausgangslageBackend.controller.LeaderboardController.LeaderboardEntry;
+import com.ausganslage.ausgangslageBackend.dto.EstimateView;
+import com.ausganslage.ausgangslageBackend.dto.ResultView;
+import com.ausganslage.ausgangslageBackend.repository.EstimateRepository;
+import com.ausganslage.ausgangslageBackend.repository.ResultRepository;
+import com.ausganslage.ausgangslageBackend.service.EstimateService;
+import com.ausganslage.ausgangslageBackend.service.LeaderboardService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the lists the API returns, using the
+ * application's own {@link ObjectMapper}. The lists are loaded once from the
+ * seeded database; only {@code writeValueAsBytes} is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"100", "10000"})
+    int size;
+
+    private BenchmarkApp app;
+    private ObjectMapper objectMapper;
+    private List<ResultView> results;
+    private List<EstimateView> estimates;
+    private List<LeaderboardEntry> leaderboard;
+
+    @Setup(Level.Trial)
+    public void seed() throws Exception {
+        app = BenchmarkApp.start();
+        objectMapper = app.bean(ObjectMapper.class);
+
+        List<Long> personIds = app.seedPersons(size);
+        Long pastExam = app.seedExams(1, LocalDate.now().minusDays(10)).get(0);
+        Long futureExam = app.seedExams(1, LocalDate.now().plusDays(10)).get(0);
+        app.seedResults(size, List.of(pastExam), personIds);
+
+        EstimateService estimateService = app.bean(EstimateService.class);
+        for (Long personId : personIds) {
+            estimateService.submitEstimate(futureExam, personId, 3);
+        }
+
+        results = app.bean(ResultRepository.class).findViewsByExamId(pastExam);
+        estimates = app.bean(EstimateRepository.class).findViewsByExamId(futureExam);
+        LeaderboardService leaderboardService = app.bean(LeaderboardService.class);
+        leaderboardService.rebuild();
+        leaderboard = leaderboardService.top(size);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        app.close();
+    }
+
+    @Benchmark
+    public byte[] results() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(results);
+    }
+
+    @Benchmark
+    public byte[] estimates() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(estimates);
+    }
+
+    @Benchmark
+    public byte[] leaderboard() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(leaderboard);
+    }
+}
@@ -0,0 +1,77 @@
+package com.ausganslage.ausgangslageBackend.jmh;
+
+import com.ausganslage.ausgangslageBackend.service.TodoSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Todo title search on the trigram index: a selective query, a common word,
+ * the ranked variant and the short-query fallback.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TodoSearchBenchmark {
+
+    private static final String[] WORDS = {
+        "einkaufen", "Mathe", "lernen", "Prüfung", "vorbereiten", "Hausaufgaben", "abgeben", "Bio",
+        "Referat", "Zusammenfassung", "schreiben", "Deutsch", "Aufsatz", "üben", "Vokabeln", "Physik"
+    };
+
+    @Param({"100000", "1000000"})
+    int todos;
+
+    private BenchmarkApp app;
+    private TodoSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        app = BenchmarkApp.start();
+        app.seedTodos(todos, app.seedPersons(1_000), WORDS);
+        index = app.bean(TodoSearchIndex.class);
+        index.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        app.close();
+    }
+
+    @Benchmark
+    public List<Long> selective() {
+        // Only the numeric suffix makes this rare
+        return index.search("physik 4242", false, 50);
+    }
+
+    @Benchmark
+    public List<Long> commonWord() {
+        return index.search("mathe", false, 50);
+    }
+
+    @Benchmark
+    public List<Long> commonWordRanked() {
+        return index.search("mathe", true, 50);
+    }
+
+    @Benchmark
+    public List<Long> shortQuery() {
+        return index.search("bi", false, 50);
+    }
+}
@@ -0,0 +1,63 @@
+package com.ausganslage.ausgangslageBackend.config;
+
+import com.ausganslage.ausgangslageBackend.service.TokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.OptionalLong;
+
+/**
+ * Prüft das Bearer-Token einer Anfrage und legt die Person-ID als
+ * Request-Attribut ab ({@link #PERSON_ID_ATTRIBUTE}). Controller lesen sie
+ * mit {@code @RequestAttribute}. Anfragen ohne Token laufen unverändert
+ * weiter. Ungültige oder abgelaufene Tokens markiert der Filter nur
+ * ({@link #INVALID_TOKEN_ATTRIBUTE}); abgewiesen werden sie mit 401 erst in
+ * Spring MVC nach der CORS-Verarbeitung (siehe {@link CorsConfig}), damit
+ * Browser die Antwort lesen können. {@code /api/auth/**} prüft der Filter
+ * nicht: wer ein abgelaufenes Token mitschickt, kann sich trotzdem neu
+ * anmelden.
+ */
+@Component
+public class AuthTokenFilter extends OncePerRequestFilter {
+
+    public static final String PERSON_ID_ATTRIBUTE = "authPersonId";
+    public static final String INVALID_TOKEN_ATTRIBUTE = "authTokenInvalid";
+    public static final String AUTH_PATH_PREFIX = "/api/auth/";
+
+    private static final String BEARER = "Bearer ";
+
+    private final TokenService tokenService;
+
+    public AuthTokenFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + AUTH_PATH_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        OptionalLong personId = tokenService.verify(header.substring(BEARER.length()).trim());
+        if (personId.isEmpty()) {
+            request.setAttribute(INVALID_TOKEN_ATTRIBUTE, Boolean.TRUE);
+        } else {
+            request.setAttribute(PERSON_ID_ATTRIBUTE, personId.getAsLong());
+        }
+        chain.doFilter(request, response);
+    }
+}
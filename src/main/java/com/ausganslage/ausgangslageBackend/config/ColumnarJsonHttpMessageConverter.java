@@ -0,0 +1,138 @@
+package com.ausganslage.ausgangslageBackend.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Schreibt Listen spaltenweise statt als Array von Objekten:
+ * {@code {"columns":["id","name",...],"rows":[[1,"Anna",...],...]}}.
+ * Die Feldnamen stehen nur einmal im Payload, was bei langen Listen den
+ * Grossteil der Bytes ausmacht. Spalten und Werte kommen aus den
+ * Jackson-Serializern der Elemente, es gelten also dieselben Namen,
+ * {@code @JsonIgnore} und Formate wie bei normalem JSON.
+ * <p>
+ * Nur für Antworten; Clients fordern das Format mit
+ * {@code Accept: application/vnd.ausgangslage.columnar+json} an.
+ */
+public class ColumnarJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType("application/vnd.ausgangslage.columnar+json");
+
+    private final ObjectMapper objectMapper;
+
+    public ColumnarJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MEDIA_TYPE);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar JSON is a response format only", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar JSON is a response format only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        write((Collection<?>) value, outputMessage.getBody());
+    }
+
+    /**
+     * Schreibt die Liste spaltenweise in den Stream, ohne ihn zu schliessen.
+     * Alle Elemente müssen vom Typ des ersten sein.
+     */
+    public void write(Collection<?> rows, OutputStream out) throws IOException {
+        SerializerProvider provider = objectMapper.getSerializerProviderInstance();
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            // The servlet container owns the response stream
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Object first = rows.isEmpty() ? null : rows.iterator().next();
+            List<PropertyWriter> columns = first == null ? List.of() : columnsOf(first.getClass(), provider);
+
+            json.writeStartObject();
+            json.writeArrayFieldStart("columns");
+            if (columns == null) {
+                json.writeString("value");
+            } else {
+                for (PropertyWriter column : columns) {
+                    json.writeString(column.getName());
+                }
+            }
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("rows");
+            for (Object row : rows) {
+                json.writeStartArray();
+                if (columns == null || row == null) {
+                    // Scalars and values without bean properties become a single column
+                    provider.defaultSerializeValue(row, json);
+                } else if (!first.getClass().isInstance(row)) {
+                    throw new HttpMessageNotWritableException("Columnar JSON needs rows of one type, got "
+                            + first.getClass().getSimpleName() + " and " + row.getClass().getSimpleName());
+                } else {
+                    for (PropertyWriter column : columns) {
+                        try {
+                            column.serializeAsElement(row, json, provider);
+                        } catch (IOException | RuntimeException e) {
+                            throw e;
+                        } catch (Exception e) {
+                            throw new HttpMessageNotWritableException("Could not write column " + column.getName(), e);
+                        }
+                    }
+                }
+                json.writeEndArray();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    // Null when the type is not serialized as a bean (numbers, strings, maps, @JsonValue types)
+    private static List<PropertyWriter> columnsOf(Class<?> type, SerializerProvider provider) throws IOException {
+        JsonSerializer<Object> serializer = provider.findTypedValueSerializer(type, true, null);
+        if (!(serializer instanceof BeanSerializerBase bean)) {
+            return null;
+        }
+        List<PropertyWriter> columns = new ArrayList<>();
+        for (Iterator<PropertyWriter> properties = bean.properties(); properties.hasNext(); ) {
+            columns.add(properties.next());
+        }
+        return columns;
+    }
+}
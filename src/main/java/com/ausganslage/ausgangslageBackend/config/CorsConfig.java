@@ -1,8 +1,13 @@
 package com.ausganslage.ausgangslageBackend.config;
 
+import com.ausganslage.ausgangslageBackend.exception.AuthenticationException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
@@ -14,7 +19,24 @@ public class CorsConfig {
             public void addCorsMappings(CorsRegistry registry) {
                 registry.addMapping("/api/**")
                         .allowedOrigins("http://localhost:5173")
-                        .allowedMethods("GET", "POST", "PUT", "DELETE");
+                        .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE")
+                        // Lets the frontend read the next-page link of paginated lists
+                        .exposedHeaders("Link");
+            }
+
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                // Runs after Spring's CORS interceptor, so browsers see the 401 instead of a network error
+                registry.addInterceptor(new HandlerInterceptor() {
+                    @Override
+                    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+                            throws AuthenticationException {
+                        if (request.getAttribute(AuthTokenFilter.INVALID_TOKEN_ATTRIBUTE) != null) {
+                            throw new AuthenticationException("Token ungültig oder abgelaufen");
+                        }
+                        return true;
+                    }
+                }).addPathPatterns("/api/**").excludePathPatterns(AuthTokenFilter.AUTH_PATH_PREFIX + "**");
             }
         };
     }
@@ -1,105 +1,289 @@
 package com.ausganslage.ausgangslageBackend.config;
 
-import com.ausganslage.ausgangslageBackend.model.Person;
-import com.ausganslage.ausgangslageBackend.model.Exam;
-import com.ausganslage.ausgangslageBackend.model.Result;
-import com.ausganslage.ausgangslageBackend.repository.PersonRepository;
-import com.ausganslage.ausgangslageBackend.repository.ExamRepository;
-import com.ausganslage.ausgangslageBackend.repository.ResultRepository;
+import com.ausganslage.ausgangslageBackend.exception.ServiceUnavailableException;
+import com.ausganslage.ausgangslageBackend.logging.EventLogger;
+import com.ausganslage.ausgangslageBackend.model.EstimateSlot;
+import com.ausganslage.ausgangslageBackend.service.LeaderboardService;
+import com.ausganslage.ausgangslageBackend.service.PasswordHashingService;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
 
+/**
+ * Erzeugt beim Start die Daten der In-Memory-Datenbank: die Demo-Konten und,
+ * je nach {@link DatasetProperties}, beliebig viele synthetische Personen,
+ * Prüfungen, Noten, Schätzungen und Todos.
+ * Geschrieben wird per JDBC-Batch mit vorab vergebenen IDs, alle Konten
+ * teilen sich einen einzigen Passwort-Hash. Mit demselben Seed (und Stichtag)
+ * entstehen dieselben Daten.
+ *
+ * <p>Verteilungen: Personen bilden Klassen; jede Prüfung gehört zu einer
+ * zufälligen Klasse und wird von allen Mitgliedern geschrieben. Jede Person
+ * hat ein festes Leistungsniveau, die einzelne Note streut darum (1 = beste
+ * Note). Schätzungen vor der Prüfung streuen stärker und sind leicht zu
+ * optimistisch, Schätzungen danach liegen nahe an der tatsächlichen Note.
+ */
 @Component
 public class DataLoader implements CommandLineRunner {
 
-    private final PersonRepository personRepository;
-    private final ExamRepository examRepository;
-    private final ResultRepository resultRepository;
+    private static final String DEMO_PASSWORD = "password123";
 
-    public DataLoader(PersonRepository personRepository, ExamRepository examRepository, ResultRepository resultRepository) {
-        this.personRepository = personRepository;
-        this.examRepository = examRepository;
-        this.resultRepository = resultRepository;
+    private static final String[] FIRST_NAMES = {
+        "Lena", "Noah", "Mia", "Luca", "Emma", "Leon", "Sofia", "Elias", "Lea", "Levin",
+        "Alina", "Nino", "Laura", "Jonas", "Sara", "Julian", "Nina", "Tim", "Anna", "David"
+    };
+    private static final String[] LAST_NAMES = {
+        "Meier", "Müller", "Schmid", "Keller", "Weber", "Huber", "Schneider", "Frei", "Steiner", "Brunner",
+        "Baumann", "Gerber", "Fischer", "Moser", "Wyss", "Graf", "Suter", "Roth", "Bachmann", "Koenis"
+    };
+    private static final String[] SUBJECTS = {
+        "Mathe", "Deutsch", "Englisch", "Französisch", "Bio", "Chemie", "Physik", "Geschichte", "Geografie"
+    };
+    private static final String[] TODO_WORDS = {
+        "Hausaufgaben", "lernen", "Prüfung", "vorbereiten", "Zusammenfassung", "schreiben", "Referat",
+        "abgeben", "Vokabeln", "üben", "Aufsatz", "lesen", "Übungsblatt", "korrigieren", "wiederholen"
+    };
+
+    private final DatasetProperties properties;
+    private final JdbcTemplate jdbc;
+    private final PasswordHashingService passwordHashing;
+    private final LeaderboardService leaderboardService;
+    private final EventLogger eventLogger;
+
+    public DataLoader(DatasetProperties properties, JdbcTemplate jdbc, PasswordHashingService passwordHashing,
+                      LeaderboardService leaderboardService, EventLogger eventLogger) {
+        this.properties = properties;
+        this.jdbc = jdbc;
+        this.passwordHashing = passwordHashing;
+        this.leaderboardService = leaderboardService;
+        this.eventLogger = eventLogger;
     }
 
+    /**
+     * Anzahl geschriebener Zeilen pro Tabelle.
+     */
+    public record Summary(long persons, long exams, long results, long estimates, long todos, long millis) {}
+
     @Override
-    public void run(String... args) {
-        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-
-        // Create sample users with hashed passwords (Matti Koenis, Max Müller, Hans Gross)
-        Person matti = new Person();
-        matti.setName("Matti Koenis");
-        matti.setEmail("matti.koenis@example.com");
-        matti.setPasswordHash(encoder.encode("password123"));
-        personRepository.save(matti);
-
-        Person max = new Person();
-        max.setName("Max Müller");
-        max.setEmail("max.mueller@example.com");
-        max.setPasswordHash(encoder.encode("password123"));
-        personRepository.save(max);
-
-        Person hans = new Person();
-        hans.setName("Hans Gross");
-        hans.setEmail("hans.gross@example.com");
-        hans.setPasswordHash(encoder.encode("password123"));
-        personRepository.save(hans);
-
-        // Create sample exams
-        Exam exam1 = new Exam();
-        exam1.setTitle("Mathe Prüfung Gleichungen");
-        exam1.setDate("2025-11-15");
-        examRepository.save(exam1);
-
-        Exam exam2 = new Exam();
-        exam2.setTitle("Mathe Prüfung Variablen");
-        exam2.setDate("2025-09-05");
-        examRepository.save(exam2);
-
-        // Create sample results for each exam and person
-        // Exam 1
-        Result r1 = new Result();
-        r1.setExam(exam1);
-        r1.setPerson(matti);
-        r1.setResult(3); // grade 3
-        resultRepository.save(r1);
-
-        Result r2 = new Result();
-        r2.setExam(exam1);
-        r2.setPerson(max);
-        r2.setResult(2);
-        resultRepository.save(r2);
-
-        Result r3 = new Result();
-        r3.setExam(exam1);
-        r3.setPerson(hans);
-        r3.setResult(5);
-        resultRepository.save(r3);
-
-        // Exam 2
-        Result r4 = new Result();
-        r4.setExam(exam2);
-        r4.setPerson(matti);
-        r4.setResult(4);
-        resultRepository.save(r4);
-
-        Result r5 = new Result();
-        r5.setExam(exam2);
-        r5.setPerson(max);
-        r5.setResult(5);
-        resultRepository.save(r5);
-
-        Result r6 = new Result();
-        r6.setExam(exam2);
-        r6.setPerson(hans);
-        r6.setResult(3);
-        resultRepository.save(r6);
-
-        System.out.println("Sample users and exams loaded");
+    public void run(String... args) throws ServiceUnavailableException {
+        if (!properties.enabled()) {
+            return;
+        }
+        Summary summary = load();
+        eventLogger.event("dataset.loaded")
+                .field("persons", summary.persons())
+                .field("exams", summary.exams())
+                .field("results", summary.results())
+                .field("estimates", summary.estimates())
+                .field("todos", summary.todos())
+                .field("seed", properties.seed())
+                .field("durationMs", summary.millis())
+                .emit();
     }
-}
 
+    /**
+     * Schreibt alle Daten und baut danach die Rangliste neu auf, da die
+     * JDBC-Inserts an den Entity-Listenern vorbeigehen. Der Suchindex der
+     * Todos wird erst nach dem Start aufgebaut und sieht die Daten ohnehin.
+     */
+    public Summary load() throws ServiceUnavailableException {
+        long begin = System.nanoTime();
+        Random random = new Random(properties.seed());
+        String passwordHash = properties.passwordHash().isBlank()
+                ? passwordHashing.encode(DEMO_PASSWORD)
+                : properties.passwordHash();
+
+        long personId = nextId("person");
+        long examId = nextId("exam");
+        long resultId = nextId("result");
+        long estimateId = nextId("estimate");
+        long todoId = nextId("todo");
+
+        Batch persons = new Batch("insert into person (id, name, email, password_hash) values (?, ?, ?, ?)");
+        Batch exams = new Batch("insert into exam (id, title, date) values (?, ?, ?)");
+        Batch results = new Batch("insert into result (id, exam_id, person_id, result) values (?, ?, ?, ?)");
+        Batch estimates = new Batch("insert into estimate (id, exam_id, person_id, \"value\", slot) values (?, ?, ?, ?, ?)");
+        Batch todos = new Batch("insert into todo (id, title, completed, person_id) values (?, ?, ?, ?)");
+
+        if (properties.demoAccounts()) {
+            long matti = personId++;
+            long max = personId++;
+            long hans = personId++;
+            persons.add(matti, "Matti Koenis", "matti.koenis@example.com", passwordHash);
+            persons.add(max, "Max Müller", "max.mueller@example.com", passwordHash);
+            persons.add(hans, "Hans Gross", "hans.gross@example.com", passwordHash);
+
+            long equations = examId++;
+            long variables = examId++;
+            exams.add(equations, "Mathe Prüfung Gleichungen", LocalDate.of(2025, 11, 15));
+            exams.add(variables, "Mathe Prüfung Variablen", LocalDate.of(2025, 9, 5));
+            persons.flush();
+            exams.flush();
+
+            results.add(resultId++, equations, matti, 3);
+            results.add(resultId++, equations, max, 2);
+            results.add(resultId++, equations, hans, 5);
+            results.add(resultId++, variables, matti, 4);
+            results.add(resultId++, variables, max, 5);
+            results.add(resultId++, variables, hans, 3);
+        }
 
+        // Persons: a fixed ability (mean grade) per person drives all of their grades
+        int personCount = properties.persons();
+        long firstPersonId = personId;
+        double[] ability = new double[personCount];
+        for (int i = 0; i < personCount; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String email = (first + "." + last).toLowerCase(Locale.ROOT).replace("ü", "ue") + "." + i + "@example.com";
+            persons.add(personId++, first + " " + last, email, passwordHash);
+            ability[i] = clamp(2.8 + random.nextGaussian() * 0.8, 1.0, 6.0);
+        }
+
+        // Exams on school days around the reference date
+        LocalDate reference = properties.referenceDate() != null ? properties.referenceDate() : LocalDate.now();
+        int examCount = personCount == 0 ? 0 : properties.exams();
+        LocalDate[] dates = new LocalDate[examCount];
+        int pastExams = 0;
+        for (int e = 0; e < examCount; e++) {
+            dates[e] = schoolDay(reference.plusDays(
+                    random.nextInt(properties.daysBack() + properties.daysAhead() + 1) - properties.daysBack()));
+            if (dates[e].isBefore(reference)) {
+                pastExams++;
+            }
+        }
+
+        // Class size follows from the result volume: every past exam is written by one whole class
+        int classSize = pastExams == 0 ? Math.min(personCount, 25)
+                : (int) Math.max(1, Math.min(personCount, Math.round((double) properties.results() / pastExams)));
+        int classes = Math.max(1, personCount / Math.max(1, classSize));
+        long estimateSlots = (long) examCount * classSize + (long) pastExams * classSize;
+        double estimateRate = estimateSlots == 0 ? 0 : Math.min(1.0, (double) properties.estimates() / estimateSlots);
+
+        // Parents are written completely before any row that references them
+        long firstExamId = examId;
+        int[] examClass = new int[examCount];
+        for (int e = 0; e < examCount; e++) {
+            exams.add(examId++, SUBJECTS[random.nextInt(SUBJECTS.length)] + " Prüfung " + (e + 1), dates[e]);
+            examClass[e] = random.nextInt(classes);
+        }
+        persons.flush();
+        exams.flush();
+
+        for (int e = 0; e < examCount; e++) {
+            long id = firstExamId + e;
+            boolean past = dates[e].isBefore(reference);
+            int firstMember = examClass[e] * classSize;
+            int lastMember = Math.min(personCount, firstMember + classSize);
+            for (int m = firstMember; m < lastMember; m++) {
+                long person = firstPersonId + m;
+                int grade = grade(ability[m] + random.nextGaussian() * 0.7);
+                if (random.nextDouble() < estimateRate) {
+                    // Before the exam: wider spread and a little optimistic
+                    estimates.add(estimateId++, id, person, grade(ability[m] - 0.3 + random.nextGaussian()),
+                            EstimateSlot.BEFORE_EXAM.name());
+                }
+                if (past) {
+                    results.add(resultId++, id, person, grade);
+                    if (random.nextDouble() < estimateRate) {
+                        estimates.add(estimateId++, id, person, grade(grade + random.nextGaussian() * 0.5),
+                                EstimateSlot.AFTER_EXAM.name());
+                    }
+                }
+            }
+        }
+
+        // Todos: a few persons own many, most own a handful
+        long todoCount = personCount == 0 ? 0 : properties.todos();
+        for (long t = 0; t < todoCount; t++) {
+            int owner = (int) (personCount * Math.pow(random.nextDouble(), 2));
+            String title = TODO_WORDS[random.nextInt(TODO_WORDS.length)] + " "
+                    + TODO_WORDS[random.nextInt(TODO_WORDS.length)] + " "
+                    + SUBJECTS[random.nextInt(SUBJECTS.length)];
+            todos.add(todoId++, title, random.nextDouble() < 0.4, firstPersonId + owner);
+        }
+
+        // Remaining rows, then move the id generators past the explicit ids
+        results.flush();
+        estimates.flush();
+        todos.flush();
+        restartIdentity("person", personId);
+        restartIdentity("exam", examId);
+        restartIdentity("todo", todoId);
+        restartSequence("result_seq", resultId);
+        restartSequence("estimate_seq", estimateId);
+
+        leaderboardService.rebuild();
+
+        return new Summary(persons.written, exams.written, results.written, estimates.written, todos.written,
+                (System.nanoTime() - begin) / 1_000_000);
+    }
 
+    private long nextId(String table) {
+        return jdbc.queryForObject("select coalesce(max(id), 0) + 1 from " + table, Long.class);
+    }
+
+    private void restartIdentity(String table, long next) {
+        jdbc.execute("alter table " + table + " alter column id restart with " + next);
+    }
+
+    // Pooled sequences hand out a block of 50 below the returned value, so leave that much room
+    private void restartSequence(String sequence, long next) {
+        jdbc.execute("alter sequence " + sequence + " restart with " + (next + 50));
+    }
+
+    private static LocalDate schoolDay(LocalDate date) {
+        if (date.getDayOfWeek() == DayOfWeek.SATURDAY) {
+            return date.plusDays(2);
+        }
+        if (date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            return date.plusDays(1);
+        }
+        return date;
+    }
+
+    private static int grade(double value) {
+        return (int) clamp(Math.round(value), 1, 6);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * Sammelt Zeilen für ein Insert und schreibt sie in Blöcken von
+     * {@code batchSize}, damit auch Millionen Zeilen nie gleichzeitig im
+     * Speicher liegen.
+     */
+    private final class Batch {
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>();
+        private long written;
+
+        Batch(String sql) {
+            this.sql = sql;
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            written++;
+            if (rows.size() >= properties.batchSize()) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!rows.isEmpty()) {
+                jdbc.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+}
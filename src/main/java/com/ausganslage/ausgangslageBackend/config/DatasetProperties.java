@@ -0,0 +1,41 @@
+package com.ausganslage.ausgangslageBackend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.LocalDate;
+
+/**
+ * Umfang der beim Start erzeugten Daten ({@code app.dataset.*}).
+ * Voreinstellungen für grössere Mengen liegen in den Profilen
+ * {@code dataset-small} und {@code dataset-large}.
+ *
+ * @param demoAccounts die drei bekannten Demo-Konten samt zwei Prüfungen anlegen
+ * @param persons      zusätzliche, generierte Personen
+ * @param exams        generierte Prüfungen, verteilt über {@code daysBack} Tage vor
+ *                     bis {@code daysAhead} Tage nach dem Stichtag
+ * @param results      Zielmenge an Noten; bestimmt die Klassengrösse, nur
+ *                     vergangene Prüfungen erhalten Noten
+ * @param estimates    Zielmenge an Schätzungen (vor und nach der Prüfung)
+ * @param todos        generierte Todos, schief über die Personen verteilt
+ * @param seed         Startwert des Zufallsgenerators; gleicher Seed, gleiche Daten
+ * @param referenceDate Stichtag für die Prüfungsdaten, leer bedeutet heute
+ * @param passwordHash BCrypt-Hash für alle Konten; leer bedeutet, dass
+ *                     {@code password123} beim Start einmal gehasht wird
+ */
+@ConfigurationProperties(prefix = "app.dataset")
+public record DatasetProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("true") boolean demoAccounts,
+        @DefaultValue("0") int persons,
+        @DefaultValue("0") int exams,
+        @DefaultValue("0") long results,
+        @DefaultValue("0") long estimates,
+        @DefaultValue("0") long todos,
+        @DefaultValue("42") long seed,
+        LocalDate referenceDate,
+        @DefaultValue("300") int daysBack,
+        @DefaultValue("60") int daysAhead,
+        @DefaultValue("") String passwordHash,
+        @DefaultValue("5000") int batchSize) {
+}
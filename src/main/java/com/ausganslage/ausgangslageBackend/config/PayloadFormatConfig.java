@@ -0,0 +1,66 @@
+package com.ausganslage.ausgangslageBackend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Antwortformate neben JSON, ausgewählt über den {@code Accept}-Header:
+ * CBOR ({@code application/cbor}), Smile ({@code application/x-jackson-smile})
+ * und spaltenweises JSON ({@link ColumnarJsonHttpMessageConverter}).
+ * CBOR und Smile nutzen den von Spring Boot konfigurierten Jackson-Builder,
+ * damit Datumsformate und Module dieselben sind wie bei JSON. Ohne
+ * passenden {@code Accept}-Header bleibt JSON die Voreinstellung.
+ */
+@Configuration
+public class PayloadFormatConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    public PayloadFormatConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    // Same class as Spring's defaults, so Boot swaps them in place (after JSON) instead of prepending
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Last, so Accept: */* keeps getting plain JSON
+        converters.add(new ColumnarJsonHttpMessageConverter(objectMapper));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // One URL, several representations: caches must key on Accept as well
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                return true;
+            }
+        }).addPathPatterns("/api/**");
+    }
+}
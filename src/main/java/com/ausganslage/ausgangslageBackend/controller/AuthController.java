@@ -5,11 +5,14 @@ import com.ausganslage.ausgangslageBackend.repository.PersonRepository;
 import com.ausganslage.ausgangslageBackend.exception.AuthenticationException;
 import com.ausganslage.ausgangslageBackend.exception.DuplicateDataException;
 import com.ausganslage.ausgangslageBackend.exception.InvalidOperationException;
+import com.ausganslage.ausgangslageBackend.exception.ServiceUnavailableException;
+import com.ausganslage.ausgangslageBackend.service.PasswordHashingService;
+import com.ausganslage.ausgangslageBackend.service.TokenService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.Optional;
 
 @RestController
@@ -17,10 +20,14 @@ import java.util.Optional;
 public class AuthController {
 
     private final PersonRepository personRepository;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PasswordHashingService passwordHashingService;
+    private final TokenService tokenService;
 
-    public AuthController(PersonRepository personRepository) {
+    public AuthController(PersonRepository personRepository, PasswordHashingService passwordHashingService,
+                          TokenService tokenService) {
         this.personRepository = personRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.tokenService = tokenService;
     }
 
     public static class RegisterRequest {
@@ -34,9 +41,18 @@ public class AuthController {
         public String password;
     }
 
+    // Person fields as before, plus a signed token for "Authorization: Bearer <token>"
+    public static class LoginResponse {
+        public Long id;
+        public String name;
+        public String email;
+        public String token;
+        public Instant expiresAt;
+    }
+
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody RegisterRequest req) 
-            throws InvalidOperationException, DuplicateDataException {
+            throws InvalidOperationException, DuplicateDataException, ServiceUnavailableException {
         
         // Try-Catch für Validierung mit aussagekräftigen Exceptions
         try {
@@ -57,7 +73,7 @@ public class AuthController {
             Person p = new Person();
             p.setName(req.name == null ? "" : req.name);
             p.setEmail(req.email);
-            p.setPasswordHash(passwordEncoder.encode(req.password));
+            p.setPasswordHash(passwordHashingService.encode(req.password));
             
             personRepository.save(p);
             return ResponseEntity.status(HttpStatus.CREATED).body(p);
@@ -70,7 +86,7 @@ public class AuthController {
 
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest req) 
-            throws InvalidOperationException, AuthenticationException {
+            throws InvalidOperationException, AuthenticationException, ServiceUnavailableException {
         
         try {
             if (req.email == null || req.email.trim().isEmpty()) {
@@ -88,16 +104,24 @@ public class AuthController {
             
             Person p = maybe.get();
             
-            // Validiere Passwort
-            if (!passwordEncoder.matches(req.password, p.getPasswordHash())) {
+            // Validiere Passwort (auf dem BCrypt-Executor, nicht auf dem Request-Thread)
+            PasswordHashingService.Verification verification =
+                    passwordHashingService.verify(req.password, p.getPasswordHash());
+            if (!verification.matches()) {
                 throw new AuthenticationException("Ungültige Email oder Passwort");
             }
+            if (verification.upgradedHash() != null) {
+                personRepository.updatePasswordHash(p.getId(), p.getPasswordHash(), verification.upgradedHash());
+            }
             
-            // Gebe Benutzerinformation zurück (ohne Passwort)
-            Person out = new Person();
-            out.setId(p.getId());
-            out.setName(p.getName());
-            out.setEmail(p.getEmail());
+            // Gebe Benutzerinformation (ohne Passwort) und Session-Token zurück
+            TokenService.IssuedToken issued = tokenService.issue(p.getId());
+            LoginResponse out = new LoginResponse();
+            out.id = p.getId();
+            out.name = p.getName();
+            out.email = p.getEmail();
+            out.token = issued.token();
+            out.expiresAt = issued.expiresAt();
             
             return ResponseEntity.ok(out);
             
@@ -0,0 +1,21 @@
+package com.ausganslage.ausgangslageBackend.controller;
+
+import com.ausganslage.ausgangslageBackend.service.CacheStatsService;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    private final CacheStatsService cacheStatsService;
+
+    public CacheController(CacheStatsService cacheStatsService) {
+        this.cacheStatsService = cacheStatsService;
+    }
+
+    // Second-level and query cache hit/miss counters plus JDBC statement count
+    @GetMapping("/stats")
+    public CacheStatsService.CacheStats getStats() {
+        return cacheStatsService.stats();
+    }
+}
@@ -1,41 +1,119 @@
 package com.ausganslage.ausgangslageBackend.controller;
 
+import com.ausganslage.ausgangslageBackend.config.AuthTokenFilter;
+import com.ausganslage.ausgangslageBackend.dto.BatchImportReport;
+import com.ausganslage.ausgangslageBackend.dto.CursorPage;
+import com.ausganslage.ausgangslageBackend.dto.EstimateView;
+import com.ausganslage.ausgangslageBackend.dto.ExamStats;
+import com.ausganslage.ausgangslageBackend.dto.ResultImportRow;
+import com.ausganslage.ausgangslageBackend.dto.ResultView;
 import com.ausganslage.ausgangslageBackend.model.Exam;
 import com.ausganslage.ausgangslageBackend.model.Result;
 import com.ausganslage.ausgangslageBackend.model.Estimate;
 import com.ausganslage.ausgangslageBackend.repository.ExamRepository;
 import com.ausganslage.ausgangslageBackend.repository.ResultRepository;
 import com.ausganslage.ausgangslageBackend.repository.EstimateRepository;
-import com.ausganslage.ausgangslageBackend.repository.PersonRepository;
+import com.ausganslage.ausgangslageBackend.exception.ForbiddenException;
+import com.ausganslage.ausgangslageBackend.exception.DuplicateDataException;
 import com.ausganslage.ausgangslageBackend.exception.ResourceNotFoundException;
 import com.ausganslage.ausgangslageBackend.exception.InvalidOperationException;
+import com.ausganslage.ausgangslageBackend.exception.ServiceUnavailableException;
+import com.ausganslage.ausgangslageBackend.service.AggregateVersions;
+import com.ausganslage.ausgangslageBackend.service.EstimateService;
+import com.ausganslage.ausgangslageBackend.service.ExamService;
+import com.ausganslage.ausgangslageBackend.service.ExamStatsService;
+import com.ausganslage.ausgangslageBackend.service.ExportService;
+import com.ausganslage.ausgangslageBackend.service.ResultImportService;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.time.LocalDate;
-import java.time.format.DateTimeParseException;
 
 @RestController
 @RequestMapping("/api/exams")
 public class ExamController {
 
+    // Open ends of a calendar range; both fit the DATE type of every supported database
+    private static final LocalDate MIN_EXAM_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate MAX_EXAM_DATE = LocalDate.of(9999, 12, 31);
+
     private final ExamRepository examRepository;
     private final ResultRepository resultRepository;
     private final EstimateRepository estimateRepository;
-    private final PersonRepository personRepository;
+    private final ResultImportService resultImportService;
+    private final ExportService exportService;
+    private final ExamService examService;
+    private final EstimateService estimateService;
+    private final ExamStatsService examStatsService;
+    private final AggregateVersions versions;
 
-    public ExamController(ExamRepository examRepository, ResultRepository resultRepository, EstimateRepository estimateRepository, PersonRepository personRepository) {
+    public ExamController(ExamRepository examRepository, ResultRepository resultRepository, EstimateRepository estimateRepository,
+                          ResultImportService resultImportService, ExportService exportService, ExamService examService,
+                          EstimateService estimateService, ExamStatsService examStatsService,
+                          AggregateVersions versions) {
         this.examRepository = examRepository;
         this.resultRepository = resultRepository;
         this.estimateRepository = estimateRepository;
-        this.personRepository = personRepository;
+        this.resultImportService = resultImportService;
+        this.exportService = exportService;
+        this.examService = examService;
+        this.estimateService = estimateService;
+        this.examStatsService = examStatsService;
+        this.versions = versions;
     }
 
+    // Keyset-paginated: ?after=<last id>&limit=<n>, next page in the Link header.
+    // With from/to (YYYY-MM-DD, inclusive) the page is ordered by date and the next link carries from=<last date>
     @GetMapping
-    public List<Exam> getAllExams() {
-        return examRepository.findAll();
+    public ResponseEntity<List<Exam>> getAllExams(@RequestParam(required = false) Long after,
+                                                  @RequestParam(required = false) Integer limit,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                  WebRequest request)
+            throws InvalidOperationException {
+        // 304 straight from the version counter, before any query runs
+        if (request.checkNotModified(versions.etag(AggregateVersions.EXAMS))) {
+            return null;
+        }
+        int pageSize = Pagination.pageSize(limit);
+        if (from == null && to == null) {
+            List<Exam> rows = examRepository.findByIdGreaterThanOrderByIdAsc(Pagination.after(after), Limit.of(pageSize + 1));
+            return Pagination.page(rows, pageSize, Exam::getId);
+        }
+
+        LocalDate start = from != null ? from : MIN_EXAM_DATE;
+        LocalDate end = to != null ? to : MAX_EXAM_DATE;
+        if (start.isAfter(end)) {
+            throw new InvalidOperationException("'from' darf nicht nach 'to' liegen");
+        }
+        List<Exam> rows = after == null
+                ? examRepository.findInRange(start, end, Limit.of(pageSize + 1))
+                : examRepository.findInRangeAfter(start, after, end, Limit.of(pageSize + 1));
+        return Pagination.page(rows, pageSize, (last, uri) -> uri
+                .replaceQueryParam("from", last.getDate())
+                .replaceQueryParam("after", last.getId()));
+    }
+
+    // Next exams from today on, soonest first
+    @GetMapping("/upcoming")
+    public List<Exam> getUpcomingExams(@RequestParam(required = false) Integer limit) {
+        return examRepository.findByDateGreaterThanEqualOrderByDateAscIdAsc(LocalDate.now(), Limit.of(Pagination.pageSize(limit)));
+    }
+
+    // Exams a person has a result or estimate for, keyset-paginated via the opaque cursor
+    @GetMapping("/person/{personId}")
+    public CursorPage<Exam> getExamsForPerson(@PathVariable Long personId,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer limit)
+            throws ResourceNotFoundException, InvalidOperationException {
+        return examService.getExamsForPerson(personId, cursor, Pagination.pageSize(limit));
     }
 
     @GetMapping("/{id}")
@@ -46,14 +124,16 @@ public class ExamController {
     }
 
     @PostMapping
-    public ResponseEntity<Exam> createExam(@RequestBody Exam exam) {
+    public ResponseEntity<Exam> createExam(@RequestBody Exam exam) throws InvalidOperationException {
+        requireDate(exam);
         Exam saved = examRepository.save(exam);
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<Exam> updateExam(@PathVariable Long id, @RequestBody Exam updatedExam) 
-            throws ResourceNotFoundException {
+            throws ResourceNotFoundException, InvalidOperationException {
+        requireDate(updatedExam);
         Exam exam = examRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Exam", id));
         
@@ -84,75 +164,108 @@ public class ExamController {
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
+    // Whole class at once: valid rows are inserted in JDBC batches, invalid rows are reported per index
+    @PostMapping("/{examId}/results/batch")
+    public BatchImportReport addResultsBatch(@PathVariable Long examId, @RequestBody List<ResultImportRow> rows)
+            throws ResourceNotFoundException, InvalidOperationException {
+        return resultImportService.importResults(examId, rows);
+    }
+
     @GetMapping("/{examId}/results")
-    public List<Result> getResultsByExam(@PathVariable Long examId) {
-        return resultRepository.findByExamId(examId);
+    public List<ResultView> getResultsByExam(@PathVariable Long examId, WebRequest request) {
+        // Rows carry the person's name, so both counters feed the ETag
+        if (request.checkNotModified(versions.etag(AggregateVersions.examResults(examId), AggregateVersions.PERSONS))) {
+            return null;
+        }
+        return resultRepository.findViewsByExamId(examId);
+    }
+
+    // Streams rows straight from a DB cursor (chunked transfer), heap use does not grow with the exam size
+    @GetMapping("/{examId}/results/export")
+    public ResponseEntity<StreamingResponseBody> exportResults(@PathVariable Long examId,
+                                                               @RequestParam(defaultValue = "csv") String format)
+            throws ResourceNotFoundException, InvalidOperationException {
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        if (!examRepository.existsById(examId)) {
+            throw new ResourceNotFoundException("Exam", examId);
+        }
+        StreamingResponseBody body = out -> exportService.exportResults(examId, exportFormat, out);
+        return exportResponse("exam-" + examId + "-results", exportFormat, body);
+    }
+
+    // Statistics endpoints: served from counters maintained on every result/estimate change
+    @GetMapping("/{examId}/stats")
+    public ExamStats getExamStats(@PathVariable Long examId) throws ResourceNotFoundException {
+        // findById is answered by the second-level cache, so the whole request stays O(1)
+        if (examRepository.findById(examId).isEmpty()) {
+            throw new ResourceNotFoundException("Exam", examId);
+        }
+        return examStatsService.getStats(examId);
+    }
+
+    // Compares the counters with aggregate queries over the tables; repairs only run in the scheduled reconcile
+    @GetMapping("/stats/verify")
+    public ExamStatsService.VerificationReport verifyExamStats() throws ServiceUnavailableException {
+        return examStatsService.verify(false);
     }
 
     // Estimates endpoints
     public static class EstimateRequest {
+        // Optional with a bearer token; without one it is taken unchecked, only for compatibility with clients that do not log in yet
         public Long personId;
         public Integer value;
     }
 
+    // With a token, estimates only for the signed-in person (403 otherwise)
     @PostMapping("/{examId}/estimates")
-    public ResponseEntity<?> addEstimate(@PathVariable Long examId, @RequestBody EstimateRequest req) 
-            throws ResourceNotFoundException, InvalidOperationException {
+    public ResponseEntity<?> addEstimate(@PathVariable Long examId, @RequestBody EstimateRequest req,
+                                         @RequestAttribute(name = AuthTokenFilter.PERSON_ID_ATTRIBUTE, required = false) Long authPersonId) 
+            throws ResourceNotFoundException, InvalidOperationException, ForbiddenException,
+                   DuplicateDataException {
         
-        Exam exam = examRepository.findById(examId)
-                .orElseThrow(() -> new ResourceNotFoundException("Exam", examId));
-        
-        var maybePerson = personRepository.findById(req.personId);
-        if (maybePerson.isEmpty()) {
-            throw new ResourceNotFoundException("Person", req.personId);
+        if (req.personId == null) {
+            req.personId = authPersonId;
+        } else if (authPersonId != null && !authPersonId.equals(req.personId)) {
+            throw new ForbiddenException("Schätzungen können nur für die angemeldete Person abgegeben werden");
+        }
+        if (req.personId == null) {
+            throw new InvalidOperationException("personId oder Token ist erforderlich");
         }
 
-        // Zähle existierende Schätzungen für diese Person und dieses Exam
-        var existing = estimateRepository.findByExamIdAndPersonId(examId, req.personId);
+        // Slot (before/after the exam) follows from today's date; the unique constraint settles races
+        Estimate saved = estimateService.submitEstimate(examId, req.personId, req.value);
+        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+    }
+
+    @GetMapping("/{examId}/estimates")
+    public List<EstimateView> getEstimatesByExam(@PathVariable Long examId) {
+        return estimateRepository.findViewsByExamId(examId);
+    }
 
-        LocalDate examDate;
-        try {
-            examDate = LocalDate.parse(exam.getDate());
-        } catch (DateTimeParseException e) {
-            throw new InvalidOperationException("Ungültiges Datumsformat bei Exam", e);
+    @GetMapping("/{examId}/estimates/export")
+    public ResponseEntity<StreamingResponseBody> exportEstimates(@PathVariable Long examId,
+                                                                 @RequestParam(defaultValue = "csv") String format)
+            throws ResourceNotFoundException, InvalidOperationException {
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        if (!examRepository.existsById(examId)) {
+            throw new ResourceNotFoundException("Exam", examId);
         }
-        
-        LocalDate today = LocalDate.now();
-
-        try {
-            if (existing.size() == 0) {
-                // Erste Schätzung ist nur vor dem Exam-Datum erlaubt
-                if (!today.isBefore(examDate)) {
-                    throw new InvalidOperationException(
-                        "Erste Schätzung ist nur vor dem Exam-Datum (" + exam.getDate() + ") erlaubt");
-                }
-            } else if (existing.size() == 1) {
-                // Zweite Schätzung ist nur nach dem Exam-Datum erlaubt
-                if (!today.isAfter(examDate)) {
-                    throw new InvalidOperationException(
-                        "Zweite Schätzung ist nur nach dem Exam-Datum (" + exam.getDate() + ") erlaubt");
-                }
-            } else {
-                throw new InvalidOperationException(
-                    "Es wurden bereits zwei Schätzungen für dieses Exam abgegeben");
-            }
-
-            Estimate estimate = new Estimate();
-            estimate.setExam(exam);
-            estimate.setPerson(maybePerson.get());
-            estimate.setValue(req.value);
-            
-            Estimate saved = estimateRepository.save(estimate);
-            return ResponseEntity.status(HttpStatus.CREATED).body(saved);
-            
-        } finally {
-            // Cleanup/Logging für mögliche Fehlerbehandlung
-            // z.B. Audit-Log für gescheiterte Versuche
+        StreamingResponseBody body = out -> exportService.exportEstimates(examId, exportFormat, out);
+        return exportResponse("exam-" + examId + "-estimates", exportFormat, body);
+    }
+
+    private static void requireDate(Exam exam) throws InvalidOperationException {
+        if (exam.getDate() == null) {
+            throw new InvalidOperationException("Exam-Datum ist erforderlich (YYYY-MM-DD)");
         }
     }
 
-    @GetMapping("/{examId}/estimates")
-    public List<Estimate> getEstimatesByExam(@PathVariable Long examId) {
-        return estimateRepository.findByExamId(examId);
+    private static ResponseEntity<StreamingResponseBody> exportResponse(String fileName, ExportService.Format format,
+                                                                        StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + fileName + "." + format.extension() + "\"")
+                .body(body);
     }
 }
@@ -1,9 +1,15 @@
 package com.ausganslage.ausgangslageBackend.controller;
 
-import com.ausganslage.ausgangslageBackend.model.Person;
-import com.ausganslage.ausgangslageBackend.repository.PersonRepository;
-import com.ausganslage.ausgangslageBackend.repository.ResultRepository;
+import com.ausganslage.ausgangslageBackend.exception.InvalidOperationException;
+import com.ausganslage.ausgangslageBackend.exception.ResourceNotFoundException;
+import com.ausganslage.ausgangslageBackend.exception.ServiceUnavailableException;
+import com.ausganslage.ausgangslageBackend.service.AggregateVersions;
+import com.ausganslage.ausgangslageBackend.service.LeaderboardService;
+import com.ausganslage.ausgangslageBackend.service.LeaderboardStreamService;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.*;
 
@@ -11,12 +17,15 @@ import java.util.*;
 @RequestMapping("/api/leaderboard")
 public class LeaderboardController {
 
-    private final PersonRepository personRepository;
-    private final ResultRepository resultRepository;
+    private final LeaderboardService leaderboardService;
+    private final LeaderboardStreamService leaderboardStreamService;
+    private final AggregateVersions versions;
 
-    public LeaderboardController(PersonRepository personRepository, ResultRepository resultRepository) {
-        this.personRepository = personRepository;
-        this.resultRepository = resultRepository;
+    public LeaderboardController(LeaderboardService leaderboardService, LeaderboardStreamService leaderboardStreamService,
+                                 AggregateVersions versions) {
+        this.leaderboardService = leaderboardService;
+        this.leaderboardStreamService = leaderboardStreamService;
+        this.versions = versions;
     }
 
     public static class LeaderboardEntry {
@@ -33,41 +42,41 @@ public class LeaderboardController {
         }
     }
 
+    // Points are maintained incrementally by LeaderboardService: (6 - grade) * 10 per result
     @GetMapping
-    public List<LeaderboardEntry> getLeaderboard() {
-        List<Person> allPersons = personRepository.findAll();
-        Map<Long, Integer> pointsByPerson = new HashMap<>();
-
-        // Calculate points for each person: (6 - grade) * 10
-        for (Person person : allPersons) {
-            int totalPoints = 0;
-            List<com.ausganslage.ausgangslageBackend.model.Result> results = resultRepository.findByPersonId(person.getId());
-            for (com.ausganslage.ausgangslageBackend.model.Result result : results) {
-                int points = Math.max(0, (6 - result.getResult()) * 10);
-                totalPoints += points;
-            }
-            pointsByPerson.put(person.getId(), totalPoints);
-        }
-
-        // Create leaderboard entries
-        List<LeaderboardEntry> entries = new ArrayList<>();
-        for (Person person : allPersons) {
-            entries.add(new LeaderboardEntry(
-                    person.getId(),
-                    person.getName(),
-                    pointsByPerson.getOrDefault(person.getId(), 0),
-                    0 // rank will be set after sorting
-            ));
+    public List<LeaderboardEntry> getLeaderboard(WebRequest request) {
+        // The leaderboard keeps its own version; read it before the snapshot so a concurrent change never hides behind an old ETag
+        if (request.checkNotModified(versions.etagOf(leaderboardService.version()))) {
+            return null;
         }
+        return leaderboardService.getLeaderboard();
+    }
 
-        // Sort by points descending
-        entries.sort((a, b) -> b.points - a.points);
+    // Live updates: one "snapshot" event, then coalesced "diff" events with changed entries only
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLeaderboard() {
+        return leaderboardStreamService.subscribe();
+    }
 
-        // Set ranks
-        for (int i = 0; i < entries.size(); i++) {
-            entries.get(i).rank = i + 1;
+    // Top k entries; ties share a rank (1, 2, 2, 4)
+    @GetMapping("/top")
+    public List<LeaderboardEntry> getTop(@RequestParam(defaultValue = "10") int k)
+            throws InvalidOperationException {
+        if (k < 1) {
+            throw new InvalidOperationException("k muss mindestens 1 sein");
         }
+        return leaderboardService.top(k);
+    }
+
+    @GetMapping("/{personId}/rank")
+    public LeaderboardEntry getRank(@PathVariable Long personId) throws ResourceNotFoundException {
+        return leaderboardService.rankOf(personId)
+                .orElseThrow(() -> new ResourceNotFoundException("Person", personId));
+    }
 
-        return entries;
+    // Full recompute from the database, compared against the maintained totals; never repairs
+    @GetMapping("/verify")
+    public LeaderboardService.VerificationReport verifyLeaderboard() throws ServiceUnavailableException {
+        return leaderboardService.verify(false);
     }
 }
@@ -0,0 +1,66 @@
+package com.ausganslage.ausgangslageBackend.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Shared keyset pagination for list endpoints ({@code ?after=<id>&limit=<n>}).
+ * Repositories load {@code limit + 1} rows with {@code id > after}; the extra
+ * row only signals that a next page exists and is never returned.
+ */
+final class Pagination {
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 500;
+
+    private Pagination() {
+    }
+
+    static int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    static long after(Long after) {
+        return after == null ? 0L : after;
+    }
+
+    // Trims the probe row and adds an RFC 8288 Link header pointing at the next page
+    static <T> ResponseEntity<List<T>> page(List<T> rows, int pageSize, Function<T, Long> idOf) {
+        return page(rows, pageSize, (last, uri) -> uri.replaceQueryParam("after", idOf.apply(last)));
+    }
+
+    // Variant for composite keysets: nextQuery writes the position of the last row into the next link
+    static <T> ResponseEntity<List<T>> page(List<T> rows, int pageSize, BiConsumer<T, UriComponentsBuilder> nextQuery) {
+        if (rows.size() <= pageSize) {
+            return ResponseEntity.ok(rows);
+        }
+        List<T> page = rows.subList(0, pageSize);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, link(page.get(pageSize - 1), pageSize, nextQuery))
+                .body(page);
+    }
+
+    // For streamed bodies: the caller trims the probe row itself and sets the header when one is returned
+    static <T> String nextLink(List<T> rows, int pageSize, Function<T, Long> idOf) {
+        if (rows.size() <= pageSize) {
+            return null;
+        }
+        return link(rows.get(pageSize - 1), pageSize, (last, uri) -> uri.replaceQueryParam("after", idOf.apply(last)));
+    }
+
+    private static <T> String link(T last, int pageSize, BiConsumer<T, UriComponentsBuilder> nextQuery) {
+        UriComponentsBuilder uri = ServletUriComponentsBuilder.fromCurrentRequest();
+        nextQuery.accept(last, uri);
+        String next = uri.replaceQueryParam("limit", pageSize).toUriString();
+        return "<" + next + ">; rel=\"next\"";
+    }
+}
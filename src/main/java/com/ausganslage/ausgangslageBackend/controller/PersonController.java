@@ -1,7 +1,18 @@
 package com.ausganslage.ausgangslageBackend.controller;
+import com.ausganslage.ausgangslageBackend.dto.CalibrationRank;
+import com.ausganslage.ausgangslageBackend.dto.PersonCalibration;
+import com.ausganslage.ausgangslageBackend.exception.InvalidOperationException;
+import com.ausganslage.ausgangslageBackend.exception.ResourceNotFoundException;
 import com.ausganslage.ausgangslageBackend.model.Person;
 import com.ausganslage.ausgangslageBackend.repository.PersonRepository;
+import com.ausganslage.ausgangslageBackend.service.CalibrationService;
+import com.ausganslage.ausgangslageBackend.service.PersonTodosService;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -10,20 +21,59 @@ import java.util.List;
 public class PersonController {
 
     private final PersonRepository personRepository;
+    private final CalibrationService calibrationService;
+    private final PersonTodosService personTodosService;
 
-    public PersonController(PersonRepository personRepository) {
+    public PersonController(PersonRepository personRepository, CalibrationService calibrationService,
+                            PersonTodosService personTodosService) {
         this.personRepository = personRepository;
+        this.calibrationService = calibrationService;
+        this.personTodosService = personTodosService;
     }
 
+    // Keyset-paginated: ?after=<last id>&limit=<n>, next page in the Link header
     @GetMapping
-    public List<Person> getAllPersons() {
-        return personRepository.findAll();
+    public ResponseEntity<List<Person>> getAllPersons(@RequestParam(required = false) Long after,
+                                                      @RequestParam(required = false) Integer limit) {
+        int pageSize = Pagination.pageSize(limit);
+        List<Person> rows = personRepository.findByIdGreaterThanOrderByIdAsc(Pagination.after(after), Limit.of(pageSize + 1));
+        return Pagination.page(rows, pageSize, Person::getId);
     }
 
-    // New endpoint: return persons with todos included
+    // Persons with their todos and open/completed counts: one keyset page of persons plus one IN query for
+    // all of their todos, written to the response as the cursor is read. Next page in the Link header
     @GetMapping("/with-todos")
-    public List<Person> getAllPersonsWithTodos() {
-        return personRepository.findAll(); // todos are fetched automatically
+    public ResponseEntity<StreamingResponseBody> getAllPersonsWithTodos(@RequestParam(required = false) Long after,
+                                                                        @RequestParam(required = false) Integer limit) {
+        int pageSize = Pagination.pageSize(limit);
+        List<Person> rows = personRepository.findByIdGreaterThanOrderByIdAsc(Pagination.after(after), Limit.of(pageSize + 1));
+        String next = Pagination.nextLink(rows, pageSize, Person::getId);
+        List<Person> page = rows.subList(0, Math.min(pageSize, rows.size()));
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (next != null) {
+            response.header(HttpHeaders.LINK, next);
+        }
+        return response.body(out -> personTodosService.writePage(page, out));
+    }
+
+    // Estimate calibration, maintained alongside the exam statistics on every estimate/result change
+    @GetMapping("/{id}/calibration")
+    public PersonCalibration getCalibration(@PathVariable Long id) throws ResourceNotFoundException {
+        if (personRepository.findById(id).isEmpty()) {
+            throw new ResourceNotFoundException("Person", id);
+        }
+        return calibrationService.getCalibration(id);
+    }
+
+    // Most accurate estimators first (mean absolute error over both slots)
+    @GetMapping("/calibration/ranking")
+    public List<CalibrationRank> getCalibrationRanking(@RequestParam(defaultValue = "10") int k)
+            throws InvalidOperationException {
+        if (k < 1) {
+            throw new InvalidOperationException("k muss mindestens 1 sein");
+        }
+        return calibrationService.calibrationRanking(Math.min(k, Pagination.MAX_LIMIT));
     }
 
     @PostMapping
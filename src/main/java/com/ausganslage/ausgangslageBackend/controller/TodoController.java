@@ -1,10 +1,25 @@
 package com.ausganslage.ausgangslageBackend.controller;
 
+import com.ausganslage.ausgangslageBackend.config.AuthTokenFilter;
+import com.ausganslage.ausgangslageBackend.dto.TodoBatchPatch;
+import com.ausganslage.ausgangslageBackend.dto.TodoBatchReport;
+import com.ausganslage.ausgangslageBackend.exception.AuthenticationException;
+import com.ausganslage.ausgangslageBackend.exception.InvalidOperationException;
+import com.ausganslage.ausgangslageBackend.exception.ResourceNotFoundException;
 import com.ausganslage.ausgangslageBackend.model.Todo;
 import com.ausganslage.ausgangslageBackend.repository.PersonRepository;
 import com.ausganslage.ausgangslageBackend.repository.TodoRepository;
+import com.ausganslage.ausgangslageBackend.service.AggregateVersions;
+import com.ausganslage.ausgangslageBackend.service.TodoBatchService;
+import com.ausganslage.ausgangslageBackend.service.TodoSearchIndex;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/todos")
@@ -12,20 +27,33 @@ public class TodoController {
 
     private final TodoRepository repository;
     private final PersonRepository personRepository;
+    private final TodoSearchIndex searchIndex;
+    private final AggregateVersions versions;
+    private final TodoBatchService batchService;
 
-    public TodoController(TodoRepository repository, PersonRepository personRepository) {
+    public TodoController(TodoRepository repository, PersonRepository personRepository, TodoSearchIndex searchIndex,
+                          AggregateVersions versions, TodoBatchService batchService) {
         this.repository = repository;
         this.personRepository = personRepository;
+        this.searchIndex = searchIndex;
+        this.versions = versions;
+        this.batchService = batchService;
     }
 
+    // Keyset-paginated: ?after=<last id>&limit=<n>, next page in the Link header
     @GetMapping
-    public List<Todo> getAllTodos() {
-        return repository.findAll();
+    public ResponseEntity<List<Todo>> getAllTodos(@RequestParam(required = false) Long after,
+                                                  @RequestParam(required = false) Integer limit) {
+        int pageSize = Pagination.pageSize(limit);
+        List<Todo> rows = repository.findByIdGreaterThanOrderByIdAsc(Pagination.after(after), Limit.of(pageSize + 1));
+        return Pagination.page(rows, pageSize, Todo::getId);
     }
 
     @PostMapping
     public Todo createTodo(@RequestBody Todo todo) {
-        return repository.save(todo);
+        Todo saved = repository.save(todo);
+        searchIndex.put(saved);
+        return saved;
     }
 
     @PutMapping("/{id}")
@@ -34,7 +62,9 @@ public class TodoController {
                 .map(todo -> {
                     todo.setTitle(updatedTodo.getTitle());
                     todo.setCompleted(updatedTodo.isCompleted());
-                    return repository.save(todo);
+                    Todo saved = repository.save(todo);
+                    searchIndex.put(saved);
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("Todo not found"));
     }
@@ -42,25 +72,84 @@ public class TodoController {
     @DeleteMapping("/{id}")
     public void deleteTodo(@PathVariable Long id) {
         repository.deleteById(id);
+        searchIndex.remove(id);
     }
 
+    // One set-based update for all ids: {"ids":[...],"completed":true} and/or "title"; one outcome per id
+    @PatchMapping("/batch")
+    public TodoBatchReport updateTodos(@RequestBody TodoBatchPatch patch) throws InvalidOperationException {
+        return batchService.update(patch);
+    }
+
+    // Body is a JSON array of ids
+    @DeleteMapping("/batch")
+    public TodoBatchReport deleteTodos(@RequestBody List<Long> ids) throws InvalidOperationException {
+        return batchService.delete(ids);
+    }
+
+    @PostMapping("/person/{personId}/complete-all")
+    public TodoBatchReport completeAll(@PathVariable Long personId) throws ResourceNotFoundException {
+        return batchService.completeAll(personId);
+    }
+
+    // Served from the in-memory trigram index; ranked=true puts prefix and word-start matches first
     @GetMapping("/search")
-    public List<Todo> searchTodos(@RequestParam String q) {
+    public List<Todo> searchTodos(@RequestParam String q,
+                                  @RequestParam(defaultValue = "false") boolean ranked,
+                                  @RequestParam(required = false) Integer limit) {
+        List<Long> ids = searchIndex.search(q, ranked, Pagination.pageSize(limit));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Todo> byId = new HashMap<>();
+        for (Todo todo : repository.findAllById(ids)) {
+            byId.put(todo.getId(), todo);
+        }
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
 
-        return repository.findByTitleContainingIgnoreCase(q);
+    @GetMapping("/search/stats")
+    public TodoSearchIndex.Stats searchStats() {
+        return searchIndex.stats();
     }
 
     @GetMapping("/person/{personId}")
-    public List<Todo> getTodosByPerson(@PathVariable Long personId) {
+    public List<Todo> getTodosByPerson(@PathVariable Long personId, WebRequest request) {
+        // 304 straight from the version counter, before any query runs
+        if (request.checkNotModified(versions.etag(AggregateVersions.personTodos(personId)))) {
+            return null;
+        }
         return repository.findByPersonId(personId);
     }
 
+    // Todos of the person identified by the bearer token
+    @GetMapping("/me")
+    public List<Todo> getMyTodos(@RequestAttribute(name = AuthTokenFilter.PERSON_ID_ATTRIBUTE, required = false) Long authPersonId)
+            throws AuthenticationException {
+        return repository.findByPersonId(requireAuthenticated(authPersonId));
+    }
+
+    @PostMapping("/me")
+    public Todo addMyTodo(@RequestAttribute(name = AuthTokenFilter.PERSON_ID_ATTRIBUTE, required = false) Long authPersonId,
+                          @RequestBody Todo todo) throws AuthenticationException {
+        return addTodoToPerson(requireAuthenticated(authPersonId), todo);
+    }
+
     @PostMapping("/person/{personId}")
     public Todo addTodoToPerson(@PathVariable Long personId, @RequestBody Todo todo) {
         return personRepository.findById(personId).map(person -> {
             todo.setPerson(person);
-            return repository.save(todo);
+            Todo saved = repository.save(todo);
+            searchIndex.put(saved);
+            return saved;
         }).orElseThrow(() -> new RuntimeException("Person not found"));
     }
 
+    private static Long requireAuthenticated(Long authPersonId) throws AuthenticationException {
+        if (authPersonId == null) {
+            throw new AuthenticationException("Anmeldung erforderlich");
+        }
+        return authPersonId;
+    }
+
 }
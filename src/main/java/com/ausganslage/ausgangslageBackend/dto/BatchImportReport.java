@@ -0,0 +1,12 @@
+package com.ausganslage.ausgangslageBackend.dto;
+
+import java.util.List;
+
+/**
+ * Antwort eines Batch-Imports: gültige Zeilen werden gespeichert,
+ * ungültige mit Index und Grund gemeldet.
+ */
+public record BatchImportReport(int received, int inserted, List<RowError> errors) {
+
+    public record RowError(int index, Long personId, String message) {}
+}
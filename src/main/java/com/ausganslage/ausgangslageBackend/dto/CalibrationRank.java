@@ -0,0 +1,7 @@
+package com.ausganslage.ausgangslageBackend.dto;
+
+/**
+ * Eintrag der Rangliste nach Schätzgenauigkeit: kleinster mittlerer
+ * absoluter Fehler zuerst, gleiche Fehler teilen sich den Rang.
+ */
+public record CalibrationRank(int rank, Long personId, String name, double meanAbsoluteError, long pairs) {}
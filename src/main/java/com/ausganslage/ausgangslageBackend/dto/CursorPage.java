@@ -0,0 +1,9 @@
+package com.ausganslage.ausgangslageBackend.dto;
+
+import java.util.List;
+
+/**
+ * Eine Seite einer Keyset-Paginierung. {@code nextCursor} ist undurchsichtig
+ * und {@code null}, wenn es keine weiteren Einträge gibt.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {}
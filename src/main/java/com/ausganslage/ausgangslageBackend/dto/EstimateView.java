@@ -0,0 +1,8 @@
+package com.ausganslage.ausgangslageBackend.dto;
+
+import com.ausganslage.ausgangslageBackend.model.EstimateSlot;
+
+/**
+ * Flache Projektion einer Schätzung ohne den Entity-Graph von Exam und Person.
+ */
+public record EstimateView(Long id, Long examId, Long personId, String personName, EstimateSlot slot, Integer value) {}
@@ -0,0 +1,24 @@
+package com.ausganslage.ausgangslageBackend.dto;
+
+import com.ausganslage.ausgangslageBackend.model.EstimateSlot;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Notenstatistik eines Exams. Mittelwert, Median und Standardabweichung
+ * sind {@code null}, solange keine Note erfasst ist.
+ *
+ * @param histogram Anzahl Noten pro Note 1-6
+ */
+public record ExamStats(Long examId, long results, Double mean, Double median, Double standardDeviation,
+                        Map<Integer, Long> histogram, List<EstimateAccuracy> estimates) {
+
+    /**
+     * Treffsicherheit der Schätzungen eines Slots. Fehler sind Schätzung minus
+     * Note, gezählt über alle Personen mit Schätzung und Note; ein positiver
+     * mittlerer Fehler heisst zu pessimistisch (höhere Note erwartet).
+     */
+    public record EstimateAccuracy(EstimateSlot slot, long estimates, Double meanEstimate, long pairs,
+                                   Double meanError, Double meanAbsoluteError, Double rootMeanSquareError) {}
+}
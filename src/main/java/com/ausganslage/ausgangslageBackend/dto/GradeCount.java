@@ -0,0 +1,16 @@
+package com.ausganslage.ausgangslageBackend.dto;
+
+import com.ausganslage.ausgangslageBackend.model.EstimateSlot;
+
+/**
+ * Anzahl Zeilen pro Exam, Slot und Wert aus einer Aggregat-Abfrage.
+ * Je nach Abfrage ist {@code value} die Note ({@code slot == null}), die
+ * Schätzung oder die Differenz Schätzung minus Note.
+ */
+public record GradeCount(Long examId, EstimateSlot slot, Integer value, Long count) {
+
+    // Grade count, used by the JPQL constructor expression in ResultRepository
+    public GradeCount(Long examId, Integer value, Long count) {
+        this(examId, null, value, count);
+    }
+}
@@ -0,0 +1,15 @@
+package com.ausganslage.ausgangslageBackend.dto;
+
+import com.ausganslage.ausgangslageBackend.model.EstimateSlot;
+
+/**
+ * Eine Note ({@code slot == null}) oder eine Schätzung einer Person zu einem
+ * Exam, wie sie beim Neuaufbau der Exam-Statistik gelesen wird.
+ */
+public record GradeRow(Long examId, Long personId, EstimateSlot slot, Integer value) {
+
+    // Grade row, used by the JPQL constructor expression in ResultRepository
+    public GradeRow(Long examId, Long personId, Integer value) {
+        this(examId, personId, null, value);
+    }
+}
@@ -0,0 +1,33 @@
+package com.ausganslage.ausgangslageBackend.dto;
+
+import com.ausganslage.ausgangslageBackend.model.EstimateSlot;
+
+import java.util.List;
+
+/**
+ * Wie gut eine Person ihre Noten einschätzt, über alle Exams und pro Exam.
+ * Fehler sind Schätzung minus Note; die Verbesserung ist der absolute Fehler
+ * vor dem Exam minus der absolute Fehler danach (positiv heisst: nach dem
+ * Exam besser eingeschätzt). Ohne passende Paare sind die Werte {@code null}.
+ *
+ * @param rank Rang nach mittlerem absolutem Fehler über beide Slots, {@code null} ohne Paare
+ * @param rankedPersons Anzahl Personen in der Rangliste
+ */
+public record PersonCalibration(Long personId, List<SlotCalibration> slots, long improvementPairs,
+                                Double meanImprovement, Integer rank, int rankedPersons,
+                                List<ExamCalibration> exams) {
+
+    /**
+     * Kalibrierung eines Slots über alle Exams.
+     *
+     * @param bias mittlerer Fehler; positiv heisst zu pessimistisch
+     */
+    public record SlotCalibration(EstimateSlot slot, long pairs, Double meanAbsoluteError, Double bias) {}
+
+    /**
+     * Kalibrierung in einem Exam. Hat die Person mehrere Noten im Exam, sind
+     * Note und Fehler Mittelwerte darüber.
+     */
+    public record ExamCalibration(Long examId, Double grade, Integer beforeEstimate, Integer afterEstimate,
+                                  Double beforeError, Double afterError, Double improvement) {}
+}
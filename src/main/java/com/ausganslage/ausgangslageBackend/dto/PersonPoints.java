@@ -0,0 +1,12 @@
+package com.ausganslage.ausgangslageBackend.dto;
+
+/**
+ * Punktestand einer Person, wie er von der Aggregat-Abfrage in
+ * {@code PersonRepository.sumPointsByPerson()} geliefert wird.
+ */
+public record PersonPoints(Long personId, String name, Long points) {
+
+    public long pointsOrZero() {
+        return points == null ? 0L : points;
+    }
+}
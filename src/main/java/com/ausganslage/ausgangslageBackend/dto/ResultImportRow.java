@@ -0,0 +1,6 @@
+package com.ausganslage.ausgangslageBackend.dto;
+
+/**
+ * Eine Zeile im Batch-Import von Results: Person und Note (1-6).
+ */
+public record ResultImportRow(Long personId, Integer result) {}
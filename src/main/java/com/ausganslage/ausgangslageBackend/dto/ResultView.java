@@ -0,0 +1,7 @@
+package com.ausganslage.ausgangslageBackend.dto;
+
+/**
+ * Flache Projektion eines Results: nur die Spalten, die Clients brauchen,
+ * ohne den Entity-Graph von Exam und Person.
+ */
+public record ResultView(Long id, Long examId, Long personId, String personName, Integer result) {}
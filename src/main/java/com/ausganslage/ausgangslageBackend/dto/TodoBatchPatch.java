@@ -0,0 +1,10 @@
+package com.ausganslage.ausgangslageBackend.dto;
+
+import java.util.List;
+
+/**
+ * Gemeinsame Änderung für mehrere Todos ({@code PATCH /api/todos/batch}):
+ * gesetzte Felder gelten für alle angegebenen Todos, {@code null} lässt ein
+ * Feld unverändert.
+ */
+public record TodoBatchPatch(List<Long> ids, String title, Boolean completed) {}
@@ -0,0 +1,14 @@
+package com.ausganslage.ausgangslageBackend.dto;
+
+import java.util.List;
+
+/**
+ * Antwort einer Batch-Änderung an Todos: ein Ergebnis pro angefragter ID,
+ * doppelte IDs zählen einmal.
+ */
+public record TodoBatchReport(int requested, int changed, List<Outcome> outcomes) {
+
+    public enum Status { UPDATED, UNCHANGED, DELETED, NOT_FOUND }
+
+    public record Outcome(Long id, Status status) {}
+}
@@ -0,0 +1,7 @@
+package com.ausganslage.ausgangslageBackend.dto;
+
+/**
+ * Ein Todo ohne Entity-Graph, gruppiert nach Person ausgeliefert von
+ * {@code GET /api/persons/with-todos}.
+ */
+public record TodoItem(Long id, Long personId, String title, boolean completed) {}
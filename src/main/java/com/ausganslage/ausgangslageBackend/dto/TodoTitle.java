@@ -0,0 +1,6 @@
+package com.ausganslage.ausgangslageBackend.dto;
+
+/**
+ * ID und Titel eines Todos, zum Aufbau des Suchindex.
+ */
+public record TodoTitle(Long id, String title) {}
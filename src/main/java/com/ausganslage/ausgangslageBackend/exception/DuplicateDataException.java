@@ -9,6 +9,10 @@ public class DuplicateDataException extends AusgangslageException {
         super(message, 409);
     }
 
+    public DuplicateDataException(String message, Throwable cause) {
+        super(message, 409, cause);
+    }
+
     public DuplicateDataException(String fieldName, String value) {
         super(fieldName + " '" + value + "' already exists", 409);
     }
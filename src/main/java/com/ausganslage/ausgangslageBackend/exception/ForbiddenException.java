@@ -0,0 +1,12 @@
+package com.ausganslage.ausgangslageBackend.exception;
+
+/**
+ * Wird geworfen, wenn die angemeldete Person eine Aktion für eine andere
+ * Person ausführen will.
+ */
+public class ForbiddenException extends AusgangslageException {
+
+    public ForbiddenException(String message) {
+        super(message, 403);
+    }
+}
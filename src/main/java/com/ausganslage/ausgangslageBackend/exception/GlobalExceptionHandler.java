@@ -1,5 +1,6 @@
 package com.ausganslage.ausgangslageBackend.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -56,6 +57,28 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.UNAUTHORIZED, ex.getMessage(), ex);
     }
 
+    /**
+     * Behandelt ForbiddenException (403).
+     */
+    @ExceptionHandler(ForbiddenException.class)
+    @ResponseStatus(HttpStatus.FORBIDDEN)
+    public ResponseEntity<Map<String, Object>> handleForbidden(ForbiddenException ex) {
+        return buildErrorResponse(HttpStatus.FORBIDDEN, ex.getMessage(), ex);
+    }
+
+    /**
+     * Behandelt ServiceUnavailableException (503) mit Retry-After-Header.
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<Map<String, Object>> handleServiceUnavailable(ServiceUnavailableException ex) {
+        ResponseEntity<Map<String, Object>> response =
+                buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), ex);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, Integer.toString(ex.getRetryAfterSeconds()))
+                .body(response.getBody());
+    }
+
     /**
      * Fallback für alle anderen AusgangslageException-Subklassen (500).
      */
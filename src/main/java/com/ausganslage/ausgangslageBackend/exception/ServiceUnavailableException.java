@@ -0,0 +1,25 @@
+package com.ausganslage.ausgangslageBackend.exception;
+
+/**
+ * Wird geworfen, wenn eine begrenzte Ressource ausgelastet ist (z.B. der
+ * Executor für Passwort-Hashing). Der Client soll es nach
+ * {@link #getRetryAfterSeconds()} Sekunden erneut versuchen.
+ */
+public class ServiceUnavailableException extends AusgangslageException {
+
+    private final int retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, int retryAfterSeconds) {
+        super(message, 503);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public ServiceUnavailableException(String message, int retryAfterSeconds, Throwable cause) {
+        super(message, 503, cause);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
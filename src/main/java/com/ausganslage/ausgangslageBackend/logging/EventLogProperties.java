@@ -0,0 +1,34 @@
+package com.ausganslage.ausgangslageBackend.logging;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Konfiguration des strukturierten Event-Logs ({@code app.events.*}).
+ *
+ * @param sampleRates Anteil (0.0-1.0) der geschriebenen Events pro Event-Typ;
+ *                    {@code *} gilt für alle nicht aufgeführten Typen
+ */
+@ConfigurationProperties(prefix = "app.events")
+public record EventLogProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("8192") int bufferSize,
+        @DefaultValue("256") int batchSize,
+        @DefaultValue("200") long flushIntervalMs,
+        @DefaultValue("true") boolean redactPii,
+        Map<String, Double> sampleRates) {
+
+    public EventLogProperties {
+        sampleRates = sampleRates == null ? Map.of() : Map.copyOf(sampleRates);
+    }
+
+    public double sampleRate(String type) {
+        Double rate = sampleRates.get(type);
+        if (rate == null) {
+            rate = sampleRates.getOrDefault("*", 1.0);
+        }
+        return rate;
+    }
+}
@@ -0,0 +1,248 @@
+package com.ausganslage.ausgangslageBackend.logging;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchrones, gesampeltes Event-Log im JSON-Lines-Format.
+ * Request-Threads legen Events nur in einen lock-freien Ringpuffer
+ * ({@link EventRingBuffer}); ein einzelner Writer-Thread serialisiert sie
+ * gebündelt. So konkurrieren Request-Threads nicht mehr um den
+ * synchronisierten {@code System.out}.
+ * Felder, die mit {@link Event#pii(String, String)} gesetzt werden, werden
+ * auf Wunsch durch einen gekürzten HMAC-SHA256 ersetzt. Der Schlüssel wird
+ * aus dem Token-Secret abgeleitet, ohne Secret ist er pro Prozess zufällig;
+ * ein ungesalzener Hash liesse sich mit einer Adressliste zurückrechnen.
+ */
+@Component
+public class EventLogger {
+
+    private static final Event NOOP = new Event(null, null);
+
+    private final EventLogProperties properties;
+    private final ObjectMapper objectMapper;
+    private final EventRingBuffer<Event> buffer;
+    private final OutputStream sink;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    // Only the writer thread redacts
+    private final Mac redaction;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public EventLogger(EventLogProperties properties, ObjectMapper objectMapper,
+                       @Value("${app.auth.token.secret:}") String secret) {
+        this(properties, objectMapper, secret, new FileOutputStream(FileDescriptor.out));
+    }
+
+    EventLogger(EventLogProperties properties, ObjectMapper objectMapper, String secret, OutputStream sink) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.buffer = new EventRingBuffer<>(properties.bufferSize());
+        this.sink = new BufferedOutputStream(sink, 64 * 1024);
+        this.redaction = redactionMac(secret);
+    }
+
+    /**
+     * Ein einzelnes Event. Wird erst mit {@link #emit()} in den Puffer gelegt.
+     */
+    public static final class Event {
+        private final EventLogger owner;
+        private final String type;
+        private final long timestamp;
+        private final String thread;
+        private final List<Object> fields = new ArrayList<>(8);
+        private List<String> piiKeys;
+
+        private Event(EventLogger owner, String type) {
+            this.owner = owner;
+            this.type = type;
+            this.timestamp = owner == null ? 0 : System.currentTimeMillis();
+            this.thread = owner == null ? null : Thread.currentThread().getName();
+        }
+
+        public Event field(String key, Object value) {
+            if (owner != null) {
+                fields.add(key);
+                fields.add(value);
+            }
+            return this;
+        }
+
+        /**
+         * Personenbezogenes Feld, das bei {@code app.events.redact-pii=true}
+         * nur als Hash geschrieben wird.
+         */
+        public Event pii(String key, String value) {
+            if (owner != null) {
+                if (piiKeys == null) {
+                    piiKeys = new ArrayList<>(2);
+                }
+                piiKeys.add(key);
+                field(key, value);
+            }
+            return this;
+        }
+
+        public void emit() {
+            if (owner != null) {
+                owner.enqueue(this);
+            }
+        }
+    }
+
+    /**
+     * Liefert ein neues Event dieses Typs, oder ein No-op-Event, wenn der Typ
+     * gerade nicht gesampelt wird.
+     */
+    public Event event(String type) {
+        if (!properties.enabled()) {
+            return NOOP;
+        }
+        double rate = properties.sampleRate(type);
+        if (rate <= 0 || (rate < 1 && ThreadLocalRandom.current().nextDouble() >= rate)) {
+            return NOOP;
+        }
+        return new Event(this, type);
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    public long written() {
+        return written.get();
+    }
+
+    private void enqueue(Event event) {
+        if (!buffer.offer(event)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "event-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            writer.join(2_000);
+        }
+    }
+
+    private void writeLoop() {
+        long parkNanos = properties.flushIntervalMs() * 1_000_000L;
+        while (true) {
+            int count = writeBatch();
+            if (count == 0) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(parkNanos);
+            }
+        }
+    }
+
+    // Writer thread only
+    private int writeBatch() {
+        int count = 0;
+        try {
+            Event event;
+            while (count < properties.batchSize() && (event = buffer.poll()) != null) {
+                writeLine(event);
+                count++;
+            }
+            if (count > 0) {
+                sink.flush();
+                written.addAndGet(count);
+            }
+        } catch (IOException e) {
+            // Logging must never take the application down
+            dropped.addAndGet(Math.max(1, count));
+        }
+        return count;
+    }
+
+    private void writeLine(Event event) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(sink)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        json.writeStartObject();
+        json.writeNumberField("ts", event.timestamp);
+        json.writeStringField("type", event.type);
+        json.writeStringField("thread", event.thread);
+        for (int i = 0; i < event.fields.size(); i += 2) {
+            String key = (String) event.fields.get(i);
+            Object value = event.fields.get(i + 1);
+            if (properties.redactPii() && event.piiKeys != null && event.piiKeys.contains(key) && value != null) {
+                value = redact(value.toString());
+            }
+            json.writeFieldName(key);
+            json.writeObject(value);
+        }
+        json.writeEndObject();
+        // Hands the line to the buffered sink; the OS write happens once per batch
+        json.close();
+        sink.write('\n');
+    }
+
+    // Keyed, so events for the same address can be correlated but the address cannot be guessed back
+    private String redact(String value) {
+        if (redaction == null) {
+            return "***";
+        }
+        byte[] digest = redaction.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        return "hmac:" + HexFormat.of().formatHex(digest, 0, 6);
+    }
+
+    // Own key derived from the token secret, so log hashes never double as token signatures
+    private static Mac redactionMac(String secret) {
+        try {
+            byte[] key;
+            if (secret == null || secret.isBlank()) {
+                key = new byte[32];
+                new SecureRandom().nextBytes(key);
+            } else {
+                Mac derive = Mac.getInstance("HmacSHA256");
+                derive.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+                key = derive.doFinal("event-log-pii".getBytes(StandardCharsets.UTF_8));
+            }
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            // Without HMAC the fields are dropped instead of logged in clear
+            return null;
+        }
+    }
+}
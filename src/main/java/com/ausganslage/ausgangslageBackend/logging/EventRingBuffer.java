@@ -0,0 +1,70 @@
+package com.ausganslage.ausgangslageBackend.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Begrenzter, lock-freier Ringpuffer für viele Produzenten und einen
+ * Konsumenten (nach Dmitry Vyukov). Jeder Slot trägt eine Sequenznummer,
+ * Produzenten reservieren Slots per CAS und blockieren nie: ist der Puffer
+ * voll, liefert {@link #offer(Object)} {@code false}.
+ */
+final class EventRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> items;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // Only the single consumer advances the head
+    private long head;
+
+    EventRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.items = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    boolean offer(E item) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    items.lazySet(index, item);
+                    // Publishes the item to the consumer
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    // Consumer thread only
+    E poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        E item = items.get(index);
+        items.lazySet(index, null);
+        // Frees the slot for the producer one lap ahead
+        sequences.set(index, head + mask + 1);
+        head++;
+        return item;
+    }
+}
@@ -1,25 +1,55 @@
 package com.ausganslage.ausgangslageBackend.model;
 
+import com.ausganslage.ausgangslageBackend.service.ExamStatsListener;
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
+@EntityListeners(ExamStatsListener.class)
+@Table(indexes = @Index(name = "idx_estimate_person_exam", columnList = "person_id, exam_id"),
+       // At most one estimate per slot; the database settles concurrent submissions
+       uniqueConstraints = @UniqueConstraint(name = "uk_estimate_exam_person_slot",
+                                             columnNames = {"exam_id", "person_id", "slot"}))
 public class Estimate {
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "estimate_seq")
+    @SequenceGenerator(name = "estimate_seq", sequenceName = "estimate_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    // Lazy: reads go through ResultView/EstimateView projections, not through these associations
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "exam_id")
     private Exam exam;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "person_id")
     private Person person;
 
     @Column(name = "\"value\"")
     private Integer value; // user's estimate (1-6 or similar)
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EstimateSlot slot;
+
+    // State as last seen in the database, used to compute statistics deltas on update/delete
+    @Transient
+    @JsonIgnore
+    private Long storedExamId;
+
+    @Transient
+    @JsonIgnore
+    private Long storedPersonId;
+
+    @Transient
+    @JsonIgnore
+    private EstimateSlot storedSlot;
+
+    @Transient
+    @JsonIgnore
+    private Integer storedValue;
+
     // Getters & Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -32,4 +62,32 @@ public class Estimate {
 
     public Integer getValue() { return value; }
     public void setValue(Integer value) { this.value = value; }
+
+    public EstimateSlot getSlot() { return slot; }
+    public void setSlot(EstimateSlot slot) { this.slot = slot; }
+
+    @JsonIgnore
+    public Long getExamId() { return exam == null ? null : exam.getId(); }
+
+    @JsonIgnore
+    public Long getPersonId() { return person == null ? null : person.getId(); }
+
+    @JsonIgnore
+    public Long getStoredExamId() { return storedExamId; }
+
+    @JsonIgnore
+    public Long getStoredPersonId() { return storedPersonId; }
+
+    @JsonIgnore
+    public EstimateSlot getStoredSlot() { return storedSlot; }
+
+    @JsonIgnore
+    public Integer getStoredValue() { return storedValue; }
+
+    public void rememberStoredState() {
+        this.storedExamId = getExamId();
+        this.storedPersonId = getPersonId();
+        this.storedSlot = slot;
+        this.storedValue = value;
+    }
 }
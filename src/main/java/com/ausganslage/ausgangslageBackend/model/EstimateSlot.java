@@ -0,0 +1,7 @@
+package com.ausganslage.ausgangslageBackend.model;
+
+// Each person may estimate an exam once before and once after its date
+public enum EstimateSlot {
+    BEFORE_EXAM,
+    AFTER_EXAM
+}
@@ -1,17 +1,29 @@
 package com.ausganslage.ausgangslageBackend.model;
 
+import com.ausganslage.ausgangslageBackend.service.AggregateVersionListener;
+import com.ausganslage.ausgangslageBackend.service.ExamStatsListener;
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import java.time.LocalDate;
 import java.util.List;
 
 @Entity
+// Read by id on almost every request; READ_WRITE keeps the cache consistent with writes
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners({ExamStatsListener.class, AggregateVersionListener.class})
+// (date, id) serves range scans and keyset pages ordered by date
+@Table(indexes = @Index(name = "idx_exam_date_id", columnList = "date, id"))
 public class Exam {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     private String title;
-    private String date;
+    @Column(nullable = false)
+    private LocalDate date; // serialized as YYYY-MM-DD
 
     // One exam can have many results (cascade delete)
     @OneToMany(mappedBy = "exam", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -30,8 +42,8 @@ public class Exam {
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
 
-    public String getDate() { return date; }
-    public void setDate(String date) { this.date = date; }
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
 
     public List<Result> getResults() { return results; }
     public void setResults(List<Result> results) { this.results = results; }
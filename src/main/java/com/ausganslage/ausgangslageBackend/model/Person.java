@@ -1,8 +1,17 @@
 package com.ausganslage.ausgangslageBackend.model;
 
+import com.ausganslage.ausgangslageBackend.service.AggregateVersionListener;
+import com.ausganslage.ausgangslageBackend.service.LeaderboardEntityListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+// Looked up for every login, result and estimate; bulk updates evict the region
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners({LeaderboardEntityListener.class, AggregateVersionListener.class})
 public class Person {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -13,7 +22,8 @@ public class Person {
     @Column(unique = true)
     private String email;
 
-    // password hash (BCrypt)
+    // password hash (BCrypt), never part of a response
+    @JsonIgnore
     private String passwordHash;
 
     // Getters & Setters
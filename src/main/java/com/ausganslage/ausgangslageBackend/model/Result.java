@@ -1,23 +1,46 @@
 package com.ausganslage.ausgangslageBackend.model;
 
+import com.ausganslage.ausgangslageBackend.service.AggregateVersionListener;
+import com.ausganslage.ausgangslageBackend.service.ExamStatsListener;
+import com.ausganslage.ausgangslageBackend.service.LeaderboardEntityListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 @Entity
+@Table(indexes = @Index(name = "idx_result_person_exam", columnList = "person_id, exam_id"))
+// ExamStatsListener reads the stored state before LeaderboardEntityListener refreshes it
+@EntityListeners({ExamStatsListener.class, LeaderboardEntityListener.class, AggregateVersionListener.class})
 public class Result {
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "result_seq")
+    @SequenceGenerator(name = "result_seq", sequenceName = "result_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    // Lazy: reads go through ResultView/EstimateView projections, not through these associations
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "exam_id")
     private Exam exam;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "person_id")
     private Person person;
 
     private Integer result; // 1-6 (school grades)
 
+    // State as last seen in the database, used to compute point and statistics deltas on update/delete
+    @Transient
+    @JsonIgnore
+    private Integer storedResult;
+
+    @Transient
+    @JsonIgnore
+    private Long storedPersonId;
+
+    @Transient
+    @JsonIgnore
+    private Long storedExamId;
+
     // Getters & Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -30,4 +53,25 @@ public class Result {
 
     public Integer getResult() { return result; }
     public void setResult(Integer result) { this.result = result; }
+
+    @JsonIgnore
+    public Long getPersonId() { return person == null ? null : person.getId(); }
+
+    @JsonIgnore
+    public Long getExamId() { return exam == null ? null : exam.getId(); }
+
+    @JsonIgnore
+    public Integer getStoredResult() { return storedResult; }
+
+    @JsonIgnore
+    public Long getStoredPersonId() { return storedPersonId; }
+
+    @JsonIgnore
+    public Long getStoredExamId() { return storedExamId; }
+
+    public void rememberStoredState() {
+        this.storedResult = result;
+        this.storedPersonId = getPersonId();
+        this.storedExamId = getExamId();
+    }
 }
@@ -1,8 +1,10 @@
 package com.ausganslage.ausgangslageBackend.model;
+import com.ausganslage.ausgangslageBackend.service.AggregateVersionListener;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 
 @Entity
+@EntityListeners(AggregateVersionListener.class)
 public class Todo {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,12 +1,51 @@
 package com.ausganslage.ausgangslageBackend.repository;
 
+import com.ausganslage.ausgangslageBackend.dto.EstimateView;
+import com.ausganslage.ausgangslageBackend.dto.GradeCount;
+import com.ausganslage.ausgangslageBackend.dto.GradeRow;
 import com.ausganslage.ausgangslageBackend.model.Estimate;
+import com.ausganslage.ausgangslageBackend.model.EstimateSlot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface EstimateRepository extends JpaRepository<Estimate, Long> {
     List<Estimate> findByExamId(Long examId);
     List<Estimate> findByPersonId(Long personId);
     List<Estimate> findByExamIdAndPersonId(Long examId, Long personId);
+    boolean existsByExamIdAndPersonIdAndSlot(Long examId, Long personId, EstimateSlot slot);
+
+    // One query for GET /api/exams/{id}/estimates: only the columns the client shows, no entity graph
+    @Query("select new com.ausganslage.ausgangslageBackend.dto.EstimateView(s.id, s.exam.id, p.id, p.name, s.slot, s.value) "
+            + "from Estimate s left join s.person p where s.exam.id = :examId order by s.id")
+    List<EstimateView> findViewsByExamId(@Param("examId") Long examId);
+
+    // Cursor over DTO rows for exports; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.ausganslage.ausgangslageBackend.dto.EstimateView(s.id, s.exam.id, p.id, p.name, s.slot, s.value) "
+            + "from Estimate s left join s.person p where s.exam.id = :examId order by s.id")
+    Stream<EstimateView> streamViewsByExamId(@Param("examId") Long examId);
+
+    // Exam statistics: all estimates for a rebuild, counts per value and per error for the reconciliation
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.ausganslage.ausgangslageBackend.dto.GradeRow(s.exam.id, s.person.id, s.slot, s.value) "
+            + "from Estimate s")
+    Stream<GradeRow> streamGrades();
+
+    @Query("select new com.ausganslage.ausgangslageBackend.dto.GradeCount(s.exam.id, s.slot, s.value, count(s)) "
+            + "from Estimate s group by s.exam.id, s.slot, s.value")
+    List<GradeCount> countEstimates();
+
+    @Query("select new com.ausganslage.ausgangslageBackend.dto.GradeCount(s.exam.id, s.slot, s.value - r.result, count(s)) "
+            + "from Estimate s join Result r on r.exam = s.exam and r.person = s.person "
+            + "where s.value between 1 and 6 and r.result between 1 and 6 "
+            + "group by s.exam.id, s.slot, s.value - r.result")
+    List<GradeCount> countEstimateErrors();
 }
@@ -1,7 +1,45 @@
 package com.ausganslage.ausgangslageBackend.repository;
 
 import com.ausganslage.ausgangslageBackend.model.Exam;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
 
 public interface ExamRepository extends JpaRepository<Exam, Long> {
+
+    // Keyset page by primary key, see controller Pagination
+    List<Exam> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    // Exams the person has a result or estimate for, newest first. Driven by the person's own rows through the
+    // (person_id, exam_id) indexes, then joined to exam by id: cost follows the person's exams, not all exams
+    @Query(value = "select e.* from exam e join ("
+            + "select r.exam_id from result r where r.person_id = :personId"
+            + " union select s.exam_id from estimate s where s.person_id = :personId) p on p.exam_id = e.id"
+            + " order by e.date desc, e.id desc limit :limit", nativeQuery = true)
+    List<Exam> findFirstPageForPerson(@Param("personId") Long personId, @Param("limit") int limit);
+
+    // Keyset continuation: strictly after (date, id) of the last row of the previous page
+    @Query(value = "select e.* from exam e join ("
+            + "select r.exam_id from result r where r.person_id = :personId"
+            + " union select s.exam_id from estimate s where s.person_id = :personId) p on p.exam_id = e.id"
+            + " where e.date < :date or (e.date = :date and e.id < :id)"
+            + " order by e.date desc, e.id desc limit :limit", nativeQuery = true)
+    List<Exam> findPageForPersonAfter(@Param("personId") Long personId, @Param("date") LocalDate date,
+                                      @Param("id") Long id, @Param("limit") int limit);
+
+    // Calendar range, first page: index range scan on (date, id)
+    @Query("select e from Exam e where e.date between :from and :to order by e.date, e.id")
+    List<Exam> findInRange(@Param("from") LocalDate from, @Param("to") LocalDate to, Limit limit);
+
+    // Calendar range continuation after (date, id) of the previous page's last exam
+    @Query("select e from Exam e where e.date <= :to and (e.date > :from or (e.date = :from and e.id > :after))"
+            + " order by e.date, e.id")
+    List<Exam> findInRangeAfter(@Param("from") LocalDate from, @Param("after") Long after,
+                                @Param("to") LocalDate to, Limit limit);
+
+    List<Exam> findByDateGreaterThanEqualOrderByDateAscIdAsc(LocalDate from, Limit limit);
 }
@@ -1,10 +1,42 @@
 package com.ausganslage.ausgangslageBackend.repository;
 
+import com.ausganslage.ausgangslageBackend.dto.PersonPoints;
 import com.ausganslage.ausgangslageBackend.model.Person;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PersonRepository extends JpaRepository<Person, Long> {
+	// Login lookup; result lives in the query cache until the person table changes
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
 	Optional<Person> findByEmail(String email);
-}
\ No newline at end of file
+
+	// Keyset page by primary key, see controller Pagination
+	List<Person> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+	// Compare-and-set so a concurrent password change is never overwritten by a cost upgrade
+	@Modifying
+	@Transactional
+	@Query("update Person p set p.passwordHash = :newHash where p.id = :id and p.passwordHash = :oldHash")
+	int updatePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+	@Query("select p.id from Person p where p.id in :ids")
+	List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+	// Full leaderboard recompute in one query: (6 - grade) * 10 per result, never negative
+	@Query("select new com.ausganslage.ausgangslageBackend.dto.PersonPoints(p.id, p.name, "
+			+ "sum(case when r.result is null or r.result >= 6 then 0 else (6 - r.result) * 10 end)) "
+			+ "from Person p left join Result r on r.person = p "
+			+ "group by p.id, p.name")
+	List<PersonPoints> sumPointsByPerson();
+}
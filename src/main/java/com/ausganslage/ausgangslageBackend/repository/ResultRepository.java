@@ -1,12 +1,47 @@
 package com.ausganslage.ausgangslageBackend.repository;
 
+import com.ausganslage.ausgangslageBackend.dto.GradeCount;
+import com.ausganslage.ausgangslageBackend.dto.GradeRow;
+import com.ausganslage.ausgangslageBackend.dto.ResultView;
 import com.ausganslage.ausgangslageBackend.model.Result;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ResultRepository extends JpaRepository<Result, Long> {
     List<Result> findByExamId(Long examId);
     List<Result> findByPersonId(Long personId);
     Optional<Result> findByExamIdAndPersonId(Long examId, Long personId);
+
+    @Query("select r.person.id from Result r where r.exam.id = :examId and r.person.id in :personIds")
+    List<Long> findPersonIdsWithResult(@Param("examId") Long examId, @Param("personIds") Collection<Long> personIds);
+
+    // One query for GET /api/exams/{id}/results: only the columns the client shows, no entity graph
+    @Query("select new com.ausganslage.ausgangslageBackend.dto.ResultView(r.id, r.exam.id, p.id, p.name, r.result) "
+            + "from Result r left join r.person p where r.exam.id = :examId order by r.id")
+    List<ResultView> findViewsByExamId(@Param("examId") Long examId);
+
+    // Cursor over DTO rows for exports; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.ausganslage.ausgangslageBackend.dto.ResultView(r.id, r.exam.id, p.id, p.name, r.result) "
+            + "from Result r left join r.person p where r.exam.id = :examId order by r.id")
+    Stream<ResultView> streamViewsByExamId(@Param("examId") Long examId);
+
+    // Exam statistics: all grades for a rebuild, counts per grade for the reconciliation
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.ausganslage.ausgangslageBackend.dto.GradeRow(r.exam.id, r.person.id, r.result) "
+            + "from Result r")
+    Stream<GradeRow> streamGrades();
+
+    @Query("select new com.ausganslage.ausgangslageBackend.dto.GradeCount(r.exam.id, r.result, count(r)) "
+            + "from Result r group by r.exam.id, r.result")
+    List<GradeCount> countGrades();
 }
@@ -1,11 +1,60 @@
 package com.ausganslage.ausgangslageBackend.repository;
 
+import com.ausganslage.ausgangslageBackend.dto.TodoItem;
+import com.ausganslage.ausgangslageBackend.dto.TodoTitle;
 import com.ausganslage.ausgangslageBackend.model.Todo;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface TodoRepository extends JpaRepository<Todo, Long> {
     List<Todo> findByTitleContainingIgnoreCase(String q);
     List<Todo> findByPersonId(Long personId);
+
+    // Keyset page by primary key, see controller Pagination
+    List<Todo> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    // Cursor over (id, title) for rebuilding the search index; consume inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.ausganslage.ausgangslageBackend.dto.TodoTitle(t.id, t.title) from Todo t")
+    Stream<TodoTitle> streamTitles();
+
+    // Todos of one page of persons in a single IN query, grouped by person for streaming; consume inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.ausganslage.ausgangslageBackend.dto.TodoItem(t.id, t.person.id, t.title, t.completed) "
+            + "from Todo t where t.person.id in :personIds order by t.person.id, t.id")
+    Stream<TodoItem> streamItemsByPersonIds(@Param("personIds") Collection<Long> personIds);
+
+    // Current state of the given todos, for the per-id outcomes of batch changes;
+    // rows stay locked until commit, so the outcomes cannot go stale before the write
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.ausganslage.ausgangslageBackend.dto.TodoItem(t.id, t.person.id, t.title, t.completed) "
+            + "from Todo t where t.id in :ids")
+    List<TodoItem> findItemsByIds(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.ausganslage.ausgangslageBackend.dto.TodoItem(t.id, t.person.id, t.title, t.completed) "
+            + "from Todo t where t.person.id = :personId and t.completed = false order by t.id")
+    List<TodoItem> findOpenItemsByPersonId(@Param("personId") Long personId);
+
+    // Set-based writes skip entity listeners: callers bump AggregateVersions and update the search index themselves
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Todo t set t.title = coalesce(:title, t.title), t.completed = coalesce(:completed, t.completed) "
+            + "where t.id in :ids")
+    int updateByIds(@Param("ids") Collection<Long> ids, @Param("title") String title, @Param("completed") Boolean completed);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Todo t where t.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,28 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Führt eine Änderung an einem In-Memory-Zustand (Rangliste, Statistik,
+ * ETag-Zähler, Suchindex) erst nach dem Commit der laufenden Transaktion
+ * aus, ohne Transaktion sofort. Bei einem Rollback entfällt sie.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    static void run(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
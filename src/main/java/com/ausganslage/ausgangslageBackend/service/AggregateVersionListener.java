@@ -0,0 +1,47 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.model.Exam;
+import com.ausganslage.ausgangslageBackend.model.Person;
+import com.ausganslage.ausgangslageBackend.model.Result;
+import com.ausganslage.ausgangslageBackend.model.Todo;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * JPA-Listener, der bei jeder Änderung an Exam, Result, Todo und Person die
+ * betroffenen Zähler in {@link AggregateVersions} erhöht.
+ * JPQL-Massenupdates umgehen Entity-Listener und müssen ihre Aggregate
+ * selbst erhöhen.
+ */
+public class AggregateVersionListener {
+
+    // Lazy lookup: listeners are created while the EntityManagerFactory is still being built
+    private final ObjectProvider<AggregateVersions> versions;
+
+    public AggregateVersionListener(ObjectProvider<AggregateVersions> versions) {
+        this.versions = versions;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        AggregateVersions registry = versions.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        if (entity instanceof Exam exam) {
+            registry.bumpAfterCommit(AggregateVersions.EXAMS);
+            // Results embed their exam
+            registry.bumpAfterCommit(AggregateVersions.examResults(exam.getId()));
+        } else if (entity instanceof Result result && result.getExam() != null) {
+            registry.bumpAfterCommit(AggregateVersions.examResults(result.getExam().getId()));
+        } else if (entity instanceof Todo todo && todo.getPerson() != null) {
+            registry.bumpAfterCommit(AggregateVersions.personTodos(todo.getPerson().getId()));
+        } else if (entity instanceof Person) {
+            registry.bumpAfterCommit(AggregateVersions.PERSONS);
+        }
+    }
+}
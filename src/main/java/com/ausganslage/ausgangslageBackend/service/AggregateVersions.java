@@ -0,0 +1,80 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versionszähler pro Aggregat (alle Exams, Results eines Exams, Todos einer
+ * Person, Personen) als Grundlage für schwache ETags ({@code W/"..."}).
+ * Schwach, weil dieselbe Version je nach {@code Accept} als JSON, CBOR,
+ * Smile oder spaltenweises JSON und je nach {@code Accept-Encoding} gzip-
+ * komprimiert ausgeliefert wird; Tomcat komprimiert zudem keine Antworten
+ * mit starkem ETag.
+ * Jeder Schreibzugriff erhöht den Zähler nach dem Commit
+ * ({@link AggregateVersionListener}); lesende Endpoints bilden daraus das
+ * ETag, bevor sie die Datenbank abfragen, und beantworten
+ * {@code If-None-Match} mit 304, ohne Daten zu laden oder zu serialisieren.
+ * Die Epoche ist pro Start zufällig, damit ETags eines früheren Prozesses
+ * nach einem Neustart nie als aktuell gelten.
+ */
+@Service
+public class AggregateVersions {
+
+    public static final String EXAMS = "exams";
+    public static final String PERSONS = "persons";
+
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE);
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public static String examResults(Long examId) {
+        return "exam:" + examId + ":results";
+    }
+
+    public static String personTodos(Long personId) {
+        return "person:" + personId + ":todos";
+    }
+
+    public long version(String key) {
+        AtomicLong counter = versions.get(key);
+        return counter == null ? 0 : counter.get();
+    }
+
+    /**
+     * Erhöht den Zähler nach dem Commit der laufenden Transaktion, ohne
+     * Transaktion sofort. Ein Bump vor dem Commit könnte alte Daten mit
+     * einem neuen ETag ausliefern, die der Client dann nie mehr ersetzt.
+     */
+    public void bumpAfterCommit(String key) {
+        AfterCommit.run(() -> bump(key));
+    }
+
+    public void bump(String key) {
+        versions.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Schwaches ETag aus den aktuellen Versionen der angegebenen Aggregate.
+     */
+    public String etag(String... keys) {
+        long[] parts = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            parts[i] = version(keys[i]);
+        }
+        return etagOf(parts);
+    }
+
+    /**
+     * Schwaches ETag aus fremden Versionszählern, z.B. dem der Rangliste.
+     */
+    public String etagOf(long... parts) {
+        StringBuilder etag = new StringBuilder(34).append("W/\"").append(epoch);
+        for (long part : parts) {
+            etag.append('-').append(part);
+        }
+        return etag.append('"').toString();
+    }
+}
@@ -6,7 +6,8 @@ import com.ausganslage.ausgangslageBackend.exception.AuthenticationException;
 import com.ausganslage.ausgangslageBackend.exception.DuplicateDataException;
 import com.ausganslage.ausgangslageBackend.exception.InvalidOperationException;
 import com.ausganslage.ausgangslageBackend.exception.ResourceNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import com.ausganslage.ausgangslageBackend.exception.ServiceUnavailableException;
+import com.ausganslage.ausgangslageBackend.logging.EventLogger;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
@@ -22,11 +23,14 @@ import java.util.Optional;
 public class AuthService {
     
     private final PersonRepository personRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final EventLogger eventLogger;
 
-    public AuthService(PersonRepository personRepository) {
+    public AuthService(PersonRepository personRepository, PasswordHashingService passwordHashingService,
+                       EventLogger eventLogger) {
         this.personRepository = personRepository;
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.passwordHashingService = passwordHashingService;
+        this.eventLogger = eventLogger;
     }
 
     /**
@@ -37,10 +41,12 @@ public class AuthService {
      * @return Authentifizierte Person
      * @throws InvalidOperationException wenn Email/Passwort fehlt
      * @throws AuthenticationException wenn Kredentiale ungültig
+     * @throws ServiceUnavailableException wenn der BCrypt-Executor ausgelastet ist
      */
     public Person authenticateUser(String email, String password) 
-            throws InvalidOperationException, AuthenticationException {
+            throws InvalidOperationException, AuthenticationException, ServiceUnavailableException {
         
+        long start = System.nanoTime();
         try {
             // Input-Validierung
             validateAuthInput(email, password);
@@ -55,16 +61,25 @@ public class AuthService {
             Person person = maybePerson.get();
             
             // Validiere Passwort
-            if (!passwordEncoder.matches(password, person.getPasswordHash())) {
-                // Log fehlgeschlagenen Versuch (in realer Anwendung)
-                System.out.println("[Auth] Fehlgeschlagener Login-Versuch für: " + email);
+            PasswordHashingService.Verification verification =
+                    passwordHashingService.verify(password, person.getPasswordHash());
+            if (!verification.matches()) {
+                // Log fehlgeschlagenen Versuch
+                eventLogger.event("auth.login.failed").pii("email", email).emit();
                 throw new AuthenticationException("Ungültige Email oder Passwort");
             }
+
+            // Hash mit veralteten Kosten transparent neu speichern
+            if (verification.upgradedHash() != null) {
+                personRepository.updatePasswordHash(
+                    person.getId(), person.getPasswordHash(), verification.upgradedHash());
+                person.setPasswordHash(verification.upgradedHash());
+            }
             
-            System.out.println("[Auth] Erfolgreicher Login für: " + person.getName());
+            eventLogger.event("auth.login.success").field("personId", person.getId()).emit();
             return person;
             
-        } catch (InvalidOperationException | AuthenticationException e) {
+        } catch (InvalidOperationException | AuthenticationException | ServiceUnavailableException e) {
             // Bekannte Exceptions weitergeben
             throw e;
         } catch (Exception e) {
@@ -75,7 +90,7 @@ public class AuthService {
             );
         } finally {
             // Cleanup: Sensitive Daten aus Speicher (simuliert)
-            System.out.println("[Auth] Authentifizierungsprozess beendet");
+            eventLogger.event("auth.login.finished").field("durationMicros", micros(start)).emit();
         }
     }
 
@@ -88,10 +103,12 @@ public class AuthService {
      * @return Registrierte Person (ohne Passwort)
      * @throws InvalidOperationException wenn Eingang ungültig
      * @throws DuplicateDataException wenn Email bereits existiert
+     * @throws ServiceUnavailableException wenn der BCrypt-Executor ausgelastet ist
      */
     public Person registerUser(String name, String email, String password) 
-            throws InvalidOperationException, DuplicateDataException {
+            throws InvalidOperationException, DuplicateDataException, ServiceUnavailableException {
         
+        long start = System.nanoTime();
         try {
             // Input-Validierung
             validateAuthInput(email, password);
@@ -110,14 +127,14 @@ public class AuthService {
             Person newPerson = new Person();
             newPerson.setName(name);
             newPerson.setEmail(email);
-            newPerson.setPasswordHash(passwordEncoder.encode(password));
+            newPerson.setPasswordHash(passwordHashingService.encode(password));
             
             Person saved = personRepository.save(newPerson);
-            System.out.println("[Auth] Neuer Benutzer registriert: " + saved.getName() + " (" + saved.getId() + ")");
+            eventLogger.event("auth.register.success").field("personId", saved.getId()).emit();
             
             return saved;
             
-        } catch (InvalidOperationException | DuplicateDataException e) {
+        } catch (InvalidOperationException | DuplicateDataException | ServiceUnavailableException e) {
             // Bekannte Exceptions weitergeben
             throw e;
         } catch (Exception e) {
@@ -128,7 +145,7 @@ public class AuthService {
             );
         } finally {
             // Cleanup: Temporary data clearing
-            System.out.println("[Auth] Registrierungsprozess beendet");
+            eventLogger.event("auth.register.finished").field("durationMicros", micros(start)).emit();
         }
     }
 
@@ -163,11 +180,14 @@ public class AuthService {
      * @throws ResourceNotFoundException wenn Person nicht existiert
      * @throws AuthenticationException wenn altes Passwort falsch
      * @throws InvalidOperationException wenn neues Passwort ungültig
+     * @throws ServiceUnavailableException wenn der BCrypt-Executor ausgelastet ist
      */
     public Person changePassword(Long personId, String oldPassword, String newPassword) 
-            throws ResourceNotFoundException, AuthenticationException, InvalidOperationException {
+            throws ResourceNotFoundException, AuthenticationException, InvalidOperationException,
+                   ServiceUnavailableException {
         
         Person person = null;
+        long start = System.nanoTime();
         
         try {
             // Hole Person
@@ -175,7 +195,7 @@ public class AuthService {
                     .orElseThrow(() -> new ResourceNotFoundException("Person", personId));
             
             // Validiere altes Passwort
-            if (!passwordEncoder.matches(oldPassword, person.getPasswordHash())) {
+            if (!passwordHashingService.verify(oldPassword, person.getPasswordHash()).matches()) {
                 throw new AuthenticationException("Altes Passwort ist falsch");
             }
             
@@ -185,20 +205,31 @@ public class AuthService {
             }
             
             // Aktualisiere Passwort
-            person.setPasswordHash(passwordEncoder.encode(newPassword));
+            person.setPasswordHash(passwordHashingService.encode(newPassword));
             Person updated = personRepository.save(person);
             
-            System.out.println("[Auth] Passwort geändert für: " + person.getEmail());
+            eventLogger.event("auth.password.changed")
+                    .field("personId", person.getId())
+                    .pii("email", person.getEmail())
+                    .emit();
             return updated;
             
-        } catch (ResourceNotFoundException | AuthenticationException | InvalidOperationException e) {
+        } catch (ResourceNotFoundException | AuthenticationException | InvalidOperationException
+                 | ServiceUnavailableException e) {
             throw e;
         } catch (Exception e) {
             throw new InvalidOperationException("Fehler beim Passwort-Wechsel", e);
         } finally {
             if (person != null) {
-                System.out.println("[Auth] Passwort-Wechsel für " + person.getEmail() + " beendet");
+                eventLogger.event("auth.password.finished")
+                        .field("personId", person.getId())
+                        .field("durationMicros", micros(start))
+                        .emit();
             }
         }
     }
+
+    private static long micros(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000;
+    }
 }
@@ -0,0 +1,57 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kennzahlen des Hibernate Second-Level-Cache (Exam, Person) und des
+ * Query-Cache aus den Hibernate-Statistiken.
+ * {@code preparedStatements} zählt alle JDBC-Statements seit dem Start bzw.
+ * seit dem letzten {@link #reset()} und zeigt so direkt, wie viele
+ * Datenbank-Roundtrips der Cache einspart.
+ */
+@Service
+public class CacheStatsService {
+
+    private final Statistics statistics;
+
+    public CacheStatsService(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public record RegionStats(String region, long hits, long misses, long puts, long elementsInMemory) {}
+
+    public record CacheStats(long secondLevelHits, long secondLevelMisses, long secondLevelPuts,
+                             long queryCacheHits, long queryCacheMisses,
+                             long entityLoads, long preparedStatements, double hitRatio,
+                             List<RegionStats> regions) {}
+
+    public CacheStats stats() {
+        List<RegionStats> regions = new ArrayList<>();
+        for (String name : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(name);
+            regions.add(new RegionStats(name, region.getHitCount(), region.getMissCount(),
+                    region.getPutCount(), region.getElementCountInMemory()));
+        }
+        long hits = statistics.getSecondLevelCacheHitCount();
+        long misses = statistics.getSecondLevelCacheMissCount();
+        double ratio = hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+        return new CacheStats(hits, misses, statistics.getSecondLevelCachePutCount(),
+                statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                statistics.getEntityLoadCount(), statistics.getPrepareStatementCount(), ratio, regions);
+    }
+
+    /**
+     * Setzt alle Zähler zurück, z.B. vor einer Messung in Tests. Bewusst
+     * ohne Endpoint: die Statistik gilt für den ganzen Prozess.
+     */
+    public void reset() {
+        statistics.clear();
+    }
+}
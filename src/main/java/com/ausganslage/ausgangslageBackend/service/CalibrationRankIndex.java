@@ -0,0 +1,154 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Ordnungsstatistik über die Schätzgenauigkeit für den
+ * {@link CalibrationService}, analog zum {@link PointsRankIndex} der Rangliste.
+ * Der mittlere absolute Fehler liegt zwischen 0 und 5; ein Fenwick-Baum über
+ * Tausendstel-Buckets zählt Personen pro Bucket, innerhalb eines Buckets
+ * werden die wenigen exakten Fehlerwerte (als Bruch verglichen) einzeln
+ * gezählt. Rang und Top-K kosten damit O(log B + Werte im Bucket) bzw.
+ * O(K), ohne je alle Personen zu sortieren.
+ * Reihenfolge: kleinster Fehler zuerst, bei gleichem Fehler mehr Paare,
+ * dann kleinere ID; gleiche Fehler teilen sich den Rang.
+ * Nicht thread-safe: der Aufrufer hält den Lock des Services.
+ */
+class CalibrationRankIndex {
+
+    private static final int BUCKETS_PER_UNIT = 1000;
+    private static final int MAX_ERROR = 5;
+    private static final int SLOTS = MAX_ERROR * BUCKETS_PER_UNIT + 1;
+
+    // Fenwick tree over error buckets, 1-based internally
+    private final long[] tree = new long[SLOTS + 1];
+    private long size;
+
+    // Exact error -> persons with that error in ranking order
+    private final NavigableMap<MeanError, TreeSet<Member>> groups = new TreeMap<>();
+
+    // absoluteErrors / pairs, compared as a fraction so equal errors really tie
+    private record MeanError(long absoluteErrors, long pairs) implements Comparable<MeanError> {
+        @Override
+        public int compareTo(MeanError other) {
+            return Long.compare(absoluteErrors * other.pairs, other.absoluteErrors * pairs);
+        }
+
+        double value() {
+            return (double) absoluteErrors / pairs;
+        }
+    }
+
+    private record Member(Long personId, long pairs) implements Comparable<Member> {
+        @Override
+        public int compareTo(Member other) {
+            int byPairs = Long.compare(other.pairs, pairs);
+            return byPairs != 0 ? byPairs : personId.compareTo(other.personId);
+        }
+    }
+
+    /**
+     * Eintrag der Top-K in Ranglistenreihenfolge.
+     */
+    record Ranked(int rank, Long personId, double meanAbsoluteError, long pairs) {}
+
+    void add(Long personId, long absoluteErrors, long pairs) {
+        if (pairs <= 0) {
+            return;
+        }
+        MeanError error = new MeanError(absoluteErrors, pairs);
+        groups.computeIfAbsent(error, e -> new TreeSet<>()).add(new Member(personId, pairs));
+        update(slotOf(error), 1);
+        size++;
+    }
+
+    void remove(Long personId, long absoluteErrors, long pairs) {
+        if (pairs <= 0) {
+            return;
+        }
+        MeanError error = new MeanError(absoluteErrors, pairs);
+        TreeSet<Member> group = groups.get(error);
+        if (group == null || !group.remove(new Member(personId, pairs))) {
+            return;
+        }
+        if (group.isEmpty()) {
+            groups.remove(error);
+        }
+        update(slotOf(error), -1);
+        size--;
+    }
+
+    void clear() {
+        Arrays.fill(tree, 0);
+        size = 0;
+        groups.clear();
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * Wettkampf-Rang: 1 + Anzahl Personen mit strikt kleinerem Fehler;
+     * {@code null} ohne Paare.
+     */
+    Integer rankOf(long absoluteErrors, long pairs) {
+        if (pairs <= 0) {
+            return null;
+        }
+        MeanError error = new MeanError(absoluteErrors, pairs);
+        int slot = slotOf(error);
+        long smaller = slot == 0 ? 0 : prefix(slot - 1);
+        // Same bucket, strictly smaller exact error
+        MeanError bucketStart = new MeanError(slot, BUCKETS_PER_UNIT);
+        for (TreeSet<Member> group : groups.subMap(bucketStart, true, error, false).values()) {
+            smaller += group.size();
+        }
+        return (int) smaller + 1;
+    }
+
+    /**
+     * Die {@code limit} genauesten Personen samt Rang.
+     */
+    List<Ranked> top(int limit) {
+        List<Ranked> top = new ArrayList<>(Math.min(limit, (int) Math.min(size, Integer.MAX_VALUE)));
+        int before = 0;
+        for (Map.Entry<MeanError, TreeSet<Member>> group : groups.entrySet()) {
+            int rank = before + 1;
+            for (Member member : group.getValue()) {
+                if (top.size() >= limit) {
+                    return top;
+                }
+                top.add(new Ranked(rank, member.personId(), group.getKey().value(), member.pairs()));
+            }
+            before += group.getValue().size();
+        }
+        return top;
+    }
+
+    private static int slotOf(MeanError error) {
+        long slot = error.absoluteErrors() * BUCKETS_PER_UNIT / error.pairs();
+        return (int) Math.max(0, Math.min(slot, SLOTS - 1));
+    }
+
+    private void update(int slot, long delta) {
+        for (int i = slot + 1; i <= SLOTS; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // Number of persons in buckets 0..slot
+    private long prefix(int slot) {
+        long sum = 0;
+        for (int i = slot + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+}
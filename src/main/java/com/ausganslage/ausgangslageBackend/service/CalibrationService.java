@@ -0,0 +1,326 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.dto.CalibrationRank;
+import com.ausganslage.ausgangslageBackend.dto.GradeRow;
+import com.ausganslage.ausgangslageBackend.dto.PersonCalibration;
+import com.ausganslage.ausgangslageBackend.exception.ServiceUnavailableException;
+import com.ausganslage.ausgangslageBackend.logging.EventLogger;
+import com.ausganslage.ausgangslageBackend.model.EstimateSlot;
+import com.ausganslage.ausgangslageBackend.model.Person;
+import com.ausganslage.ausgangslageBackend.repository.EstimateRepository;
+import com.ausganslage.ausgangslageBackend.repository.PersonRepository;
+import com.ausganslage.ausgangslageBackend.repository.ResultRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import static com.ausganslage.ausgangslageBackend.service.Participation.MAX_GRADE;
+import static com.ausganslage.ausgangslageBackend.service.Participation.MIN_GRADE;
+import static com.ausganslage.ausgangslageBackend.service.Participation.SLOTS;
+import static com.ausganslage.ausgangslageBackend.service.Participation.isGrade;
+
+/**
+ * Inkrementell gepflegte Kalibrierung der Schätzungen pro Person: Fehler
+ * vor und nach dem Exam, Bias und Verbesserung, über alle Exams und pro
+ * Exam. Jede Änderung zieht den alten Beitrag des Paars Person/Exam ab und
+ * zählt den neuen hinzu. Die Rangliste nach Genauigkeit hält ein
+ * {@link CalibrationRankIndex} bei jeder Änderung nach, Lesezugriffe
+ * sortieren also nie.
+ * Gespeist wird der Service vom {@link ExamStatsListener} mit denselben
+ * Deltas wie der {@link ExamStatsService}; Werte ausserhalb von 1-6 werden
+ * nicht gezählt. Der Neuaufbau nach dem Start liest die Tabellen hinter
+ * einer eigenen {@link WriteBarrier} in einen neuen Zustand.
+ */
+@Service
+public class CalibrationService implements ExamGradeModel {
+
+    private final ResultRepository resultRepository;
+    private final EstimateRepository estimateRepository;
+    private final PersonRepository personRepository;
+    private final EventLogger eventLogger;
+    private final WriteBarrier barrier;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Replaced as a whole by a rebuild; guarded by lock
+    private State state = new State();
+
+    public CalibrationService(ResultRepository resultRepository, EstimateRepository estimateRepository,
+                              PersonRepository personRepository, EventLogger eventLogger,
+                              @Value("${app.stats.rebuild.drain-timeout-ms:5000}") long drainTimeoutMs,
+                              @Value("${app.stats.rebuild.writer-wait-ms:200}") long writerWaitMs) {
+        this.resultRepository = resultRepository;
+        this.estimateRepository = estimateRepository;
+        this.personRepository = personRepository;
+        this.eventLogger = eventLogger;
+        this.barrier = new WriteBarrier("Kalibrierung", drainTimeoutMs, writerWaitMs);
+    }
+
+    // Participation per exam plus the calibration totals summed over them
+    private static final class PersonState {
+        final Map<Long, Participation> exams = new HashMap<>();
+        final long[] pairs = new long[SLOTS.length];
+        final long[] absoluteErrors = new long[SLOTS.length];
+        final long[] errors = new long[SLOTS.length];
+        long improvementPairs;
+        long improvement;
+
+        long totalPairs() {
+            long total = 0;
+            for (long p : pairs) {
+                total += p;
+            }
+            return total;
+        }
+
+        long totalAbsoluteErrors() {
+            long total = 0;
+            for (long e : absoluteErrors) {
+                total += e;
+            }
+            return total;
+        }
+    }
+
+    // Persons and their ranking; a rebuild fills a fresh one without the lock
+    private static final class State {
+        final Map<Long, PersonState> persons = new HashMap<>();
+        // Accuracy ranking, moved along with every change of a person's calibration totals
+        final CalibrationRankIndex ranking = new CalibrationRankIndex();
+
+        void applyResult(Long examId, Long personId, int grade, int sign) {
+            PersonState person = persons.computeIfAbsent(personId, id -> new PersonState());
+            Participation participation = person.exams.computeIfAbsent(examId, id -> new Participation());
+            ranking.remove(personId, person.totalAbsoluteErrors(), person.totalPairs());
+            calibrate(person, participation, -1);
+            participation.grades[grade] += sign;
+            calibrate(person, participation, 1);
+            ranking.add(personId, person.totalAbsoluteErrors(), person.totalPairs());
+            forgetIfEmpty(personId, person, examId, participation);
+        }
+
+        void applyEstimate(Long examId, Long personId, EstimateSlot slot, int value, int sign) {
+            PersonState person = persons.computeIfAbsent(personId, id -> new PersonState());
+            Participation participation = person.exams.computeIfAbsent(examId, id -> new Participation());
+            ranking.remove(personId, person.totalAbsoluteErrors(), person.totalPairs());
+            calibrate(person, participation, -1);
+            participation.estimates[slot.ordinal()] = sign > 0 ? value : 0;
+            calibrate(person, participation, 1);
+            ranking.add(personId, person.totalAbsoluteErrors(), person.totalPairs());
+            forgetIfEmpty(personId, person, examId, participation);
+        }
+
+        // Adds (sign = 1) or removes (sign = -1) one participation's share of the person's calibration totals
+        private static void calibrate(PersonState person, Participation participation, int sign) {
+            int before = participation.estimates[EstimateSlot.BEFORE_EXAM.ordinal()];
+            int after = participation.estimates[EstimateSlot.AFTER_EXAM.ordinal()];
+            for (int g = MIN_GRADE; g <= MAX_GRADE; g++) {
+                long n = (long) sign * participation.grades[g];
+                if (n == 0) {
+                    continue;
+                }
+                for (EstimateSlot slot : SLOTS) {
+                    int estimate = participation.estimates[slot.ordinal()];
+                    if (estimate != 0) {
+                        person.pairs[slot.ordinal()] += n;
+                        person.absoluteErrors[slot.ordinal()] += n * Math.abs(estimate - g);
+                        person.errors[slot.ordinal()] += n * (estimate - g);
+                    }
+                }
+                if (before != 0 && after != 0) {
+                    person.improvementPairs += n;
+                    person.improvement += n * (Math.abs(before - g) - Math.abs(after - g));
+                }
+            }
+        }
+
+        private void forgetIfEmpty(Long personId, PersonState person, Long examId, Participation participation) {
+            if (participation.isEmpty()) {
+                person.exams.remove(examId);
+                if (person.exams.isEmpty()) {
+                    persons.remove(personId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Liefert die Kalibrierung einer Person über alle Exams und pro Exam,
+     * samt Rang in der Genauigkeits-Rangliste.
+     */
+    public PersonCalibration getCalibration(Long personId) {
+        lock.lock();
+        try {
+            PersonState person = state.persons.getOrDefault(personId, new PersonState());
+            List<PersonCalibration.SlotCalibration> slots = new ArrayList<>(SLOTS.length);
+            for (EstimateSlot slot : SLOTS) {
+                long pairs = person.pairs[slot.ordinal()];
+                slots.add(new PersonCalibration.SlotCalibration(slot, pairs,
+                        ratio(person.absoluteErrors[slot.ordinal()], pairs),
+                        ratio(person.errors[slot.ordinal()], pairs)));
+            }
+
+            List<PersonCalibration.ExamCalibration> perExam = new ArrayList<>(person.exams.size());
+            for (Long examId : new TreeSet<>(person.exams.keySet())) {
+                perExam.add(examCalibration(examId, person.exams.get(examId)));
+            }
+
+            return new PersonCalibration(personId, slots, person.improvementPairs,
+                    ratio(person.improvement, person.improvementPairs),
+                    state.ranking.rankOf(person.totalAbsoluteErrors(), person.totalPairs()),
+                    (int) state.ranking.size(), perExam);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Die {@code limit} genauesten Personen, gemessen am mittleren absoluten
+     * Fehler über beide Slots. Nur Personen mit mindestens einem Paar aus
+     * Schätzung und Note erscheinen.
+     */
+    public List<CalibrationRank> calibrationRanking(int limit) {
+        List<CalibrationRankIndex.Ranked> top;
+        lock.lock();
+        try {
+            top = state.ranking.top(limit);
+        } finally {
+            lock.unlock();
+        }
+
+        // Names for the page only, outside the lock
+        Map<Long, String> names = new HashMap<>();
+        for (Person person : personRepository.findAllById(top.stream().map(CalibrationRankIndex.Ranked::personId).toList())) {
+            names.put(person.getId(), person.getName());
+        }
+        List<CalibrationRank> entries = new ArrayList<>(top.size());
+        for (CalibrationRankIndex.Ranked row : top) {
+            entries.add(new CalibrationRank(row.rank(), row.personId(), names.get(row.personId()),
+                    row.meanAbsoluteError(), row.pairs()));
+        }
+        return entries;
+    }
+
+    @Override
+    public void applyResult(Long examId, Long personId, Integer grade, int sign) {
+        if (examId == null || personId == null || !isGrade(grade)) {
+            return;
+        }
+        lock.lock();
+        try {
+            state.applyResult(examId, personId, grade, sign);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void applyEstimate(Long examId, Long personId, EstimateSlot slot, Integer value, int sign) {
+        if (examId == null || personId == null || slot == null || !isGrade(value)) {
+            return;
+        }
+        lock.lock();
+        try {
+            state.applyEstimate(examId, personId, slot, value, sign);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Writers register here through the ExamStatsListener
+    @Override
+    public WriteBarrier barrier() {
+        return barrier;
+    }
+
+    /**
+     * Baut die Kalibrierung aller Personen aus den Tabellen neu auf.
+     *
+     * @throws ServiceUnavailableException wenn laufende Schreib-Transaktionen
+     *                                     nicht rechtzeitig abschliessen oder
+     *                                     den Neuaufbau überholen
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() throws ServiceUnavailableException {
+        barrier.close();
+        try {
+            State loaded = load();
+            barrier.publish(() -> {
+                lock.lock();
+                try {
+                    state = loaded;
+                } finally {
+                    lock.unlock();
+                }
+                return null;
+            });
+        } finally {
+            barrier.open();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (ServiceUnavailableException e) {
+            // Calibration stays as the deltas built it
+            eventLogger.event("calibration.rebuild.skipped").field("reason", e.getMessage()).emit();
+        }
+    }
+
+    // Reads the tables into a fresh state; the barrier is closed, the lock is not held
+    private State load() {
+        State loaded = new State();
+        try (Stream<GradeRow> rows = resultRepository.streamGrades()) {
+            rows.forEach(row -> {
+                if (row.examId() != null && row.personId() != null && isGrade(row.value())) {
+                    loaded.applyResult(row.examId(), row.personId(), row.value(), 1);
+                }
+            });
+        }
+        try (Stream<GradeRow> rows = estimateRepository.streamGrades()) {
+            rows.forEach(row -> {
+                if (row.examId() != null && row.personId() != null && row.slot() != null && isGrade(row.value())) {
+                    loaded.applyEstimate(row.examId(), row.personId(), row.slot(), row.value(), 1);
+                }
+            });
+        }
+        return loaded;
+    }
+
+    private static PersonCalibration.ExamCalibration examCalibration(Long examId, Participation participation) {
+        int before = participation.estimates[EstimateSlot.BEFORE_EXAM.ordinal()];
+        int after = participation.estimates[EstimateSlot.AFTER_EXAM.ordinal()];
+        long grades = 0;
+        long gradeSum = 0;
+        long beforeErrors = 0;
+        long afterErrors = 0;
+        for (int g = MIN_GRADE; g <= MAX_GRADE; g++) {
+            long n = participation.grades[g];
+            grades += n;
+            gradeSum += n * g;
+            beforeErrors += n * Math.abs(before - g);
+            afterErrors += n * Math.abs(after - g);
+        }
+        Double beforeError = before == 0 ? null : ratio(beforeErrors, grades);
+        Double afterError = after == 0 ? null : ratio(afterErrors, grades);
+        return new PersonCalibration.ExamCalibration(examId, ratio(gradeSum, grades),
+                before == 0 ? null : before, after == 0 ? null : after, beforeError, afterError,
+                beforeError == null || afterError == null ? null : beforeError - afterError);
+    }
+
+    private static Double ratio(long sum, long count) {
+        return count == 0 ? null : (double) sum / count;
+    }
+}
@@ -0,0 +1,112 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.exception.DuplicateDataException;
+import com.ausganslage.ausgangslageBackend.exception.InvalidOperationException;
+import com.ausganslage.ausgangslageBackend.exception.ResourceNotFoundException;
+import com.ausganslage.ausgangslageBackend.model.Estimate;
+import com.ausganslage.ausgangslageBackend.model.EstimateSlot;
+import com.ausganslage.ausgangslageBackend.model.Exam;
+import com.ausganslage.ausgangslageBackend.model.Person;
+import com.ausganslage.ausgangslageBackend.repository.EstimateRepository;
+import com.ausganslage.ausgangslageBackend.repository.ExamRepository;
+import com.ausganslage.ausgangslageBackend.repository.PersonRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Annahme von Schätzungen.
+ * Jede Kombination aus Exam und Person hat genau zwei Plätze
+ * ({@link EstimateSlot}): einen vor und einen nach dem Exam-Datum. Der Platz
+ * ergibt sich aus dem heutigen Datum, die Prüfung auf Belegung ist eine
+ * einzelne Existenzabfrage statt einer geladenen Liste.
+ * Gleichzeitige Anfragen für denselben Platz entscheidet der Unique-Constraint
+ * auf (exam_id, person_id, slot): genau eine gewinnt, die übrigen erhalten
+ * eine {@link DuplicateDataException} (409).
+ */
+@Service
+public class EstimateService {
+
+    private final EstimateRepository estimateRepository;
+    private final ExamRepository examRepository;
+    private final PersonRepository personRepository;
+    private final Clock clock;
+
+    public EstimateService(EstimateRepository estimateRepository, ExamRepository examRepository,
+                           PersonRepository personRepository) {
+        this(estimateRepository, examRepository, personRepository, Clock.systemDefaultZone());
+    }
+
+    EstimateService(EstimateRepository estimateRepository, ExamRepository examRepository,
+                    PersonRepository personRepository, Clock clock) {
+        this.estimateRepository = estimateRepository;
+        this.examRepository = examRepository;
+        this.personRepository = personRepository;
+        this.clock = clock;
+    }
+
+    /**
+     * Nimmt eine Schätzung an.
+     *
+     * @param examId Exam-ID
+     * @param personId Person-ID
+     * @param value geschätzte Note
+     * @return Gespeicherte Schätzung
+     * @throws ResourceNotFoundException wenn Exam oder Person nicht existiert
+     * @throws InvalidOperationException am Exam-Tag, oder wenn nach dem Exam
+     *                                   geschätzt wird, ohne vorher geschätzt zu haben
+     * @throws DuplicateDataException wenn der Platz bereits belegt ist
+     */
+    public Estimate submitEstimate(Long examId, Long personId, Integer value)
+            throws ResourceNotFoundException, InvalidOperationException, DuplicateDataException {
+
+        Exam exam = examRepository.findById(examId)
+                .orElseThrow(() -> new ResourceNotFoundException("Exam", examId));
+        Person person = personRepository.findById(personId)
+                .orElseThrow(() -> new ResourceNotFoundException("Person", personId));
+
+        EstimateSlot slot = slotFor(exam.getDate());
+        if (estimateRepository.existsByExamIdAndPersonIdAndSlot(examId, personId, slot)) {
+            throw alreadyTaken(exam, slot, null);
+        }
+        if (slot == EstimateSlot.AFTER_EXAM
+                && !estimateRepository.existsByExamIdAndPersonIdAndSlot(examId, personId, EstimateSlot.BEFORE_EXAM)) {
+            throw new InvalidOperationException(
+                "Erste Schätzung ist nur vor dem Exam-Datum (" + exam.getDate() + ") erlaubt");
+        }
+
+        Estimate estimate = new Estimate();
+        estimate.setExam(exam);
+        estimate.setPerson(person);
+        estimate.setValue(value);
+        estimate.setSlot(slot);
+
+        try {
+            // Flush inside the call so a lost race surfaces here, not at some later commit
+            return estimateRepository.saveAndFlush(estimate);
+        } catch (DataIntegrityViolationException e) {
+            throw alreadyTaken(exam, slot, e);
+        }
+    }
+
+    private EstimateSlot slotFor(LocalDate examDate) throws InvalidOperationException {
+        LocalDate today = LocalDate.now(clock);
+        if (today.isBefore(examDate)) {
+            return EstimateSlot.BEFORE_EXAM;
+        }
+        if (today.isAfter(examDate)) {
+            return EstimateSlot.AFTER_EXAM;
+        }
+        throw new InvalidOperationException(
+            "Am Exam-Tag (" + examDate + ") können keine Schätzungen abgegeben werden");
+    }
+
+    private static DuplicateDataException alreadyTaken(Exam exam, EstimateSlot slot, Throwable cause) {
+        String message = slot == EstimateSlot.BEFORE_EXAM
+                ? "Die Schätzung vor dem Exam-Datum (" + exam.getDate() + ") wurde bereits abgegeben"
+                : "Es wurden bereits zwei Schätzungen für dieses Exam abgegeben";
+        return new DuplicateDataException(message, cause);
+    }
+}
@@ -0,0 +1,28 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.model.EstimateSlot;
+
+/**
+ * Ein In-Memory-Lesemodell über Noten und Schätzungen, das der
+ * {@link ExamStatsListener} nach jedem Commit mit denselben Deltas
+ * fortschreibt. Jedes Modell hat seine eigene {@link WriteBarrier} für den
+ * Neuaufbau aus den Tabellen.
+ */
+interface ExamGradeModel {
+
+    /**
+     * Zählt eine Note hinzu ({@code sign = 1}) oder ab ({@code sign = -1}).
+     */
+    void applyResult(Long examId, Long personId, Integer grade, int sign);
+
+    /**
+     * Zählt eine Schätzung hinzu ({@code sign = 1}) oder ab ({@code sign = -1}).
+     */
+    void applyEstimate(Long examId, Long personId, EstimateSlot slot, Integer value, int sign);
+
+    // Cascaded result/estimate removals arrive first; only what is left of the exam goes here
+    default void removeExam(Long examId) {
+    }
+
+    WriteBarrier barrier();
+}
@@ -1,15 +1,18 @@
 package com.ausganslage.ausgangslageBackend.service;
 
-import com.ausganslage.ausgangslageBackend.model.Person;
+import com.ausganslage.ausgangslageBackend.dto.CursorPage;
 import com.ausganslage.ausgangslageBackend.model.Exam;
 import com.ausganslage.ausgangslageBackend.repository.PersonRepository;
 import com.ausganslage.ausgangslageBackend.repository.ExamRepository;
 import com.ausganslage.ausgangslageBackend.exception.ResourceNotFoundException;
 import com.ausganslage.ausgangslageBackend.exception.InvalidOperationException;
+import com.ausganslage.ausgangslageBackend.logging.EventLogger;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 
 /**
@@ -20,13 +23,16 @@ import java.util.List;
  */
 @Service
 public class ExamService {
-    
+
     private final ExamRepository examRepository;
     private final PersonRepository personRepository;
+    private final EventLogger eventLogger;
 
-    public ExamService(ExamRepository examRepository, PersonRepository personRepository) {
+    public ExamService(ExamRepository examRepository, PersonRepository personRepository,
+                       EventLogger eventLogger) {
         this.examRepository = examRepository;
         this.personRepository = personRepository;
+        this.eventLogger = eventLogger;
     }
 
     /**
@@ -64,36 +70,58 @@ public class ExamService {
         } finally {
             // Cleanup: hier könnte z.B. temporäre Ressourcen freigegeben werden
             // oder Logging stattfinden
-            System.out.println("[Service] Exam-Datum-Validierung abgeschlossen für: " + dateString);
+            eventLogger.event("exam.date.validated").field("date", dateString).emit();
         }
     }
 
     /**
-     * Ruft alle Exams für eine bestimmte Person ab.
-     * Demonstriert Ressourcen-Management im finally-Block.
+     * Ruft eine Seite der Exams ab, zu denen eine Person ein Result oder eine
+     * Schätzung hat, neueste zuerst (Datum, dann ID absteigend).
+     * Keyset-Paginierung: der Cursor merkt sich Datum und ID des letzten
+     * Eintrags, die Abfrage kostet daher unabhängig von der Seitennummer gleich viel.
      * 
      * @param personId Person-ID
-     * @return Liste von Exams für diese Person
+     * @param cursor {@code nextCursor} der vorherigen Seite, oder {@code null} für die erste Seite
+     * @param pageSize Seitengrösse, vom Controller bereits begrenzt
+     * @return Seite mit Exams und Cursor für die nächste Seite
      * @throws ResourceNotFoundException wenn Person nicht existiert
-     * @throws InvalidOperationException wenn Fehler beim Laden auftritt
+     * @throws InvalidOperationException wenn der Cursor ungültig ist oder Fehler beim Laden auftritt
      */
-    public List<Exam> getExamsForPerson(Long personId) throws ResourceNotFoundException, InvalidOperationException {
-        Person person = null;
-        List<Exam> exams;
+    public CursorPage<Exam> getExamsForPerson(Long personId, String cursor, int pageSize)
+            throws ResourceNotFoundException, InvalidOperationException {
+        List<Exam> exams = null;
         
         try {
             // Validiere dass Person existiert
-            person = personRepository.findById(personId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Person", personId));
+            if (!personRepository.existsById(personId)) {
+                throw new ResourceNotFoundException("Person", personId);
+            }
+            
+            // Eine Zeile mehr laden, um zu wissen, ob es eine nächste Seite gibt
+            int fetch = pageSize + 1;
+            if (cursor == null || cursor.isBlank()) {
+                exams = examRepository.findFirstPageForPerson(personId, fetch);
+            } else {
+                ExamCursor after = ExamCursor.decode(cursor);
+                exams = examRepository.findPageForPersonAfter(personId, after.date(), after.id(), fetch);
+            }
             
-            // Hole alle Exams
-            exams = examRepository.findAll();
+            String nextCursor = null;
+            if (exams.size() > pageSize) {
+                exams = exams.subList(0, pageSize);
+                Exam last = exams.get(pageSize - 1);
+                nextCursor = new ExamCursor(last.getDate(), last.getId()).encode();
+            }
             
-            System.out.println("[Service] Geladen " + exams.size() + " Exams für Person: " + person.getName());
+            eventLogger.event("exam.person.loaded")
+                    .field("personId", personId)
+                    .field("exams", exams.size())
+                    .field("hasMore", nextCursor != null)
+                    .emit();
             
-            return exams;
+            return new CursorPage<>(exams, nextCursor);
             
-        } catch (ResourceNotFoundException e) {
+        } catch (ResourceNotFoundException | InvalidOperationException e) {
             // Bekannte Exception: weitergeben für GlobalExceptionHandler
             throw e;
         } catch (Exception e) {
@@ -104,8 +132,34 @@ public class ExamService {
             );
         } finally {
             // Cleanup: Ressourcen-Freigabe oder Logging
-            if (person != null) {
-                System.out.println("[Service] Cleanup: Person-Kontext für " + person.getEmail() + " beendet");
+            if (exams != null) {
+                eventLogger.event("exam.person.finished").field("personId", personId).emit();
+            }
+        }
+    }
+
+    /**
+     * Position in der Sortierung (Datum, ID), als Base64url-Text an den
+     * Client übergeben.
+     */
+    record ExamCursor(LocalDate date, Long id) {
+
+        String encode() {
+            String raw = date + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static ExamCursor decode(String cursor) throws InvalidOperationException {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("missing separator");
+                }
+                return new ExamCursor(LocalDate.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new InvalidOperationException("Ungültiger Cursor: " + cursor, e);
             }
         }
     }
@@ -146,16 +200,16 @@ public class ExamService {
             // Erstelle und speichere Exam
             exam = new Exam();
             exam.setTitle(title);
-            exam.setDate(dateString);
+            exam.setDate(examDate);
             
             Exam saved = examRepository.save(exam);
-            System.out.println("[Service] Exam erstellt: " + saved.getTitle() + " (" + saved.getId() + ")");
+            eventLogger.event("exam.created").field("examId", saved.getId()).emit();
             
             return saved;
             
         } finally {
             // Cleanup: z.B. Transaktions-Logging oder temporäre Daten löschen
-            System.out.println("[Service] Exam-Erstellung-Prozess beendet");
+            eventLogger.event("exam.create.finished").emit();
         }
     }
 }
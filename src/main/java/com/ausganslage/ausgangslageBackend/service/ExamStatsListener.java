@@ -0,0 +1,113 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.model.Estimate;
+import com.ausganslage.ausgangslageBackend.model.EstimateSlot;
+import com.ausganslage.ausgangslageBackend.model.Exam;
+import com.ausganslage.ausgangslageBackend.model.Result;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.function.Consumer;
+
+/**
+ * JPA-Listener, der jede Änderung an {@link Result} und {@link Estimate} an
+ * alle {@link ExamGradeModel}s weiterreicht, also an den
+ * {@link ExamStatsService} und den {@link CalibrationService}: {@code addResult},
+ * {@code addEstimate}, der Batch-Import und das Cascade-Delete eines Exams.
+ * Wie beim {@link LeaderboardEntityListener} werden die Deltas erst nach dem
+ * Commit angewendet. Den gespeicherten Zustand eines Results frischt der
+ * {@link LeaderboardEntityListener} auf, der deshalb nach diesem läuft.
+ * Jede Transaktion meldet sich bei der ersten Änderung an der
+ * {@link WriteBarrier} jedes Modells an und erst nach dem Anwenden ihrer
+ * Deltas wieder ab, damit ein Neuaufbau nie zwischen Commit und Delta liest.
+ */
+public class ExamStatsListener {
+
+    // Lazy lookup: listeners are created while the EntityManagerFactory is still being built
+    private final ObjectProvider<ExamGradeModel> models;
+
+    public ExamStatsListener(ObjectProvider<ExamGradeModel> models) {
+        this.models = models;
+    }
+
+    @PostLoad
+    public void onLoad(Object entity) {
+        if (entity instanceof Estimate estimate) {
+            estimate.rememberStoredState();
+        }
+    }
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        if (entity instanceof Result result) {
+            Long examId = result.getExamId();
+            Long personId = result.getPersonId();
+            Integer grade = result.getResult();
+            afterCommit(model -> model.applyResult(examId, personId, grade, 1));
+        } else if (entity instanceof Estimate estimate) {
+            Long examId = estimate.getExamId();
+            Long personId = estimate.getPersonId();
+            EstimateSlot slot = estimate.getSlot();
+            Integer value = estimate.getValue();
+            estimate.rememberStoredState();
+            afterCommit(model -> model.applyEstimate(examId, personId, slot, value, 1));
+        }
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        if (entity instanceof Result result) {
+            Long oldExamId = result.getStoredExamId();
+            Long oldPersonId = result.getStoredPersonId();
+            Integer oldGrade = result.getStoredResult();
+            Long examId = result.getExamId();
+            Long personId = result.getPersonId();
+            Integer grade = result.getResult();
+            afterCommit(model -> {
+                model.applyResult(oldExamId, oldPersonId, oldGrade, -1);
+                model.applyResult(examId, personId, grade, 1);
+            });
+        } else if (entity instanceof Estimate estimate) {
+            Long oldExamId = estimate.getStoredExamId();
+            Long oldPersonId = estimate.getStoredPersonId();
+            EstimateSlot oldSlot = estimate.getStoredSlot();
+            Integer oldValue = estimate.getStoredValue();
+            Long examId = estimate.getExamId();
+            Long personId = estimate.getPersonId();
+            EstimateSlot slot = estimate.getSlot();
+            Integer value = estimate.getValue();
+            estimate.rememberStoredState();
+            afterCommit(model -> {
+                model.applyEstimate(oldExamId, oldPersonId, oldSlot, oldValue, -1);
+                model.applyEstimate(examId, personId, slot, value, 1);
+            });
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof Result result) {
+            Long examId = result.getStoredExamId();
+            Long personId = result.getStoredPersonId();
+            Integer grade = result.getStoredResult();
+            afterCommit(model -> model.applyResult(examId, personId, grade, -1));
+        } else if (entity instanceof Estimate estimate) {
+            Long examId = estimate.getStoredExamId();
+            Long personId = estimate.getStoredPersonId();
+            EstimateSlot slot = estimate.getStoredSlot();
+            Integer value = estimate.getStoredValue();
+            afterCommit(model -> model.applyEstimate(examId, personId, slot, value, -1));
+        } else if (entity instanceof Exam exam) {
+            Long examId = exam.getId();
+            afterCommit(model -> model.removeExam(examId));
+        }
+    }
+
+    // No models in sliced test contexts: the stream is simply empty
+    private void afterCommit(Consumer<ExamGradeModel> change) {
+        models.orderedStream().forEach(model -> model.barrier().runAfterCommit(() -> change.accept(model)));
+    }
+}
@@ -0,0 +1,460 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.dto.ExamStats;
+import com.ausganslage.ausgangslageBackend.dto.GradeCount;
+import com.ausganslage.ausgangslageBackend.dto.GradeRow;
+import com.ausganslage.ausgangslageBackend.exception.ServiceUnavailableException;
+import com.ausganslage.ausgangslageBackend.logging.EventLogger;
+import com.ausganslage.ausgangslageBackend.model.EstimateSlot;
+import com.ausganslage.ausgangslageBackend.repository.EstimateRepository;
+import com.ausganslage.ausgangslageBackend.repository.ResultRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static com.ausganslage.ausgangslageBackend.service.Participation.MAX_GRADE;
+import static com.ausganslage.ausgangslageBackend.service.Participation.MIN_GRADE;
+import static com.ausganslage.ausgangslageBackend.service.Participation.SLOTS;
+import static com.ausganslage.ausgangslageBackend.service.Participation.isGrade;
+
+/**
+ * Inkrementell gepflegte Notenstatistik pro Exam.
+ * Noten und Schätzungen liegen zwischen 1 und 6, deshalb hält jedes Exam
+ * nur Zähler-Arrays fester Grösse: ein Notenhistogramm, ein Histogramm der
+ * Schätzungen pro Slot und ein Histogramm der Schätzfehler (-5 bis +5) pro
+ * Slot. Mittelwert, Median, Standardabweichung und Fehlermasse werden aus
+ * diesen Zählern in O(1) berechnet, ohne die Results zu lesen.
+ * Für die Fehler merkt sich der Service pro Exam und Person deren Noten und
+ * Schätzungen ({@link Participation}), damit eine neue Note oder Schätzung
+ * sofort mit ihrem Gegenstück verrechnet werden kann. Die Kalibrierung pro
+ * Person pflegt der {@link CalibrationService} aus denselben Deltas.
+ * Aktualisiert wird über den {@link ExamStatsListener}; Werte ausserhalb von
+ * 1-6 werden nicht gezählt.
+ * Neuaufbau und Abstimmung lesen die Tabellen hinter einer
+ * {@link WriteBarrier}, ohne den Lock zu halten; ein Neuaufbau lädt in einen
+ * neuen Zustand und ersetzt den alten erst am Ende.
+ */
+@Service
+public class ExamStatsService implements ExamGradeModel {
+
+    // Estimate minus grade, shifted so that -5 lands on index 0
+    private static final int ERROR_OFFSET = MAX_GRADE - MIN_GRADE;
+
+    private final ResultRepository resultRepository;
+    private final EstimateRepository estimateRepository;
+    private final EventLogger eventLogger;
+    private final boolean repairOnDrift;
+    private final WriteBarrier barrier;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Replaced as a whole by a rebuild; guarded by lock
+    private State state = new State();
+
+    public ExamStatsService(ResultRepository resultRepository, EstimateRepository estimateRepository,
+                            EventLogger eventLogger,
+                            @Value("${app.stats.reconcile.repair:false}") boolean repairOnDrift,
+                            @Value("${app.stats.rebuild.drain-timeout-ms:5000}") long drainTimeoutMs,
+                            @Value("${app.stats.rebuild.writer-wait-ms:200}") long writerWaitMs) {
+        this.resultRepository = resultRepository;
+        this.estimateRepository = estimateRepository;
+        this.eventLogger = eventLogger;
+        this.repairOnDrift = repairOnDrift;
+        this.barrier = new WriteBarrier("Notenstatistik", drainTimeoutMs, writerWaitMs);
+    }
+
+    private static final class Counters {
+        final long[] grades = new long[MAX_GRADE + 1];
+        final long[][] estimates = new long[SLOTS.length][MAX_GRADE + 1];
+        final long[][] errors = new long[SLOTS.length][2 * ERROR_OFFSET + 1];
+    }
+
+    // Counters and participations per exam; a rebuild fills a fresh one without the lock
+    private static final class State {
+        final Map<Long, Counters> exams = new HashMap<>();
+        final Map<Long, Map<Long, Participation>> participations = new HashMap<>();
+
+        void applyResult(Long examId, Long personId, int grade, int sign) {
+            Counters counters = exams.computeIfAbsent(examId, id -> new Counters());
+            counters.grades[grade] += sign;
+            if (personId == null) {
+                return;
+            }
+            Participation participation = participation(examId, personId);
+            participation.grades[grade] += sign;
+            for (EstimateSlot slot : SLOTS) {
+                int estimate = participation.estimates[slot.ordinal()];
+                if (estimate != 0) {
+                    counters.errors[slot.ordinal()][estimate - grade + ERROR_OFFSET] += sign;
+                }
+            }
+            forgetIfEmpty(examId, personId, participation);
+        }
+
+        void applyEstimate(Long examId, Long personId, EstimateSlot slot, int value, int sign) {
+            Counters counters = exams.computeIfAbsent(examId, id -> new Counters());
+            counters.estimates[slot.ordinal()][value] += sign;
+            if (personId == null) {
+                return;
+            }
+            Participation participation = participation(examId, personId);
+            participation.estimates[slot.ordinal()] = sign > 0 ? value : 0;
+            for (int g = MIN_GRADE; g <= MAX_GRADE; g++) {
+                if (participation.grades[g] != 0) {
+                    counters.errors[slot.ordinal()][value - g + ERROR_OFFSET] += (long) sign * participation.grades[g];
+                }
+            }
+            forgetIfEmpty(examId, personId, participation);
+        }
+
+        void removeExam(Long examId) {
+            exams.remove(examId);
+            participations.remove(examId);
+        }
+
+        private Participation participation(Long examId, Long personId) {
+            return participations.computeIfAbsent(examId, id -> new HashMap<>())
+                    .computeIfAbsent(personId, id -> new Participation());
+        }
+
+        private void forgetIfEmpty(Long examId, Long personId, Participation participation) {
+            if (participation.isEmpty()) {
+                Map<Long, Participation> byPerson = participations.get(examId);
+                byPerson.remove(personId);
+                if (byPerson.isEmpty()) {
+                    participations.remove(examId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Eine Abweichung zwischen gepflegtem und neu berechnetem Zähler, z.B.
+     * {@code grade:3}, {@code estimate:BEFORE_EXAM:2} oder {@code error:AFTER_EXAM:-1}.
+     */
+    public record Drift(Long examId, String counter, long maintained, long recomputed) {}
+
+    /**
+     * Ergebnis einer Abstimmung mit der Datenbank.
+     */
+    public record VerificationReport(boolean consistent, int exams, List<Drift> drift, boolean repaired) {}
+
+    /**
+     * Liefert die Statistik eines Exams; ohne Noten und Schätzungen sind
+     * alle Zähler 0.
+     */
+    public ExamStats getStats(Long examId) {
+        lock.lock();
+        try {
+            Counters counters = state.exams.get(examId);
+            return counters == null ? toStats(examId, new Counters()) : toStats(examId, counters);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void applyResult(Long examId, Long personId, Integer grade, int sign) {
+        if (examId == null || !isGrade(grade)) {
+            return;
+        }
+        lock.lock();
+        try {
+            state.applyResult(examId, personId, grade, sign);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void applyEstimate(Long examId, Long personId, EstimateSlot slot, Integer value, int sign) {
+        if (examId == null || slot == null || !isGrade(value)) {
+            return;
+        }
+        lock.lock();
+        try {
+            state.applyEstimate(examId, personId, slot, value, sign);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void removeExam(Long examId) {
+        lock.lock();
+        try {
+            state.removeExam(examId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Writers register here through the ExamStatsListener
+    @Override
+    public WriteBarrier barrier() {
+        return barrier;
+    }
+
+    /**
+     * Baut alle Zähler aus den Tabellen neu auf, nachdem die Anwendung
+     * gestartet ist (also auch nach dem {@code DataLoader}).
+     *
+     * @throws ServiceUnavailableException wenn laufende Schreib-Transaktionen
+     *                                     nicht rechtzeitig abschliessen oder
+     *                                     den Neuaufbau überholen
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() throws ServiceUnavailableException {
+        barrier.close();
+        try {
+            State loaded = load();
+            barrier.publish(() -> install(loaded));
+        } finally {
+            barrier.open();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (ServiceUnavailableException e) {
+            // Counters stay as the deltas built them; the next reconcile repairs them
+            eventLogger.event("exam.stats.rebuild.skipped").field("reason", e.getMessage()).emit();
+        }
+    }
+
+    /**
+     * Vergleicht die gepflegten Zähler mit drei Aggregat-Abfragen über
+     * Results und Estimates.
+     *
+     * @param repair bei Abweichungen alle Zähler aus den Tabellen neu aufbauen
+     * @return Bericht mit allen Abweichungen
+     * @throws ServiceUnavailableException wenn laufende Schreib-Transaktionen
+     *                                     nicht rechtzeitig abschliessen
+     */
+    @Transactional(readOnly = true)
+    public VerificationReport verify(boolean repair) throws ServiceUnavailableException {
+        barrier.close();
+        try {
+            // Table reads without the lock: deltas are held off by the barrier, reads stay unblocked
+            Map<String, Map<Long, Long>> expected = new LinkedHashMap<>();
+            for (GradeCount row : resultRepository.countGrades()) {
+                if (isGrade(row.value())) {
+                    expected.computeIfAbsent("grade:" + row.value(), k -> new HashMap<>()).put(row.examId(), row.count());
+                }
+            }
+            for (GradeCount row : estimateRepository.countEstimates()) {
+                if (isGrade(row.value())) {
+                    expected.computeIfAbsent("estimate:" + row.slot() + ":" + row.value(), k -> new HashMap<>())
+                            .put(row.examId(), row.count());
+                }
+            }
+            for (GradeCount row : estimateRepository.countEstimateErrors()) {
+                expected.computeIfAbsent("error:" + row.slot() + ":" + row.value(), k -> new HashMap<>())
+                        .put(row.examId(), row.count());
+            }
+
+            Map<String, Map<Long, Long>> maintained = barrier.publish(() -> locked(this::maintainedCounters));
+
+            List<Drift> drift = new ArrayList<>();
+            TreeSet<Long> examIds = new TreeSet<>();
+            TreeSet<String> keys = new TreeSet<>(expected.keySet());
+            keys.addAll(maintained.keySet());
+            for (String key : keys) {
+                Map<Long, Long> want = expected.getOrDefault(key, Map.of());
+                Map<Long, Long> have = maintained.getOrDefault(key, Map.of());
+                TreeSet<Long> ids = new TreeSet<>(want.keySet());
+                ids.addAll(have.keySet());
+                for (Long examId : ids) {
+                    examIds.add(examId);
+                    long recomputed = want.getOrDefault(examId, 0L);
+                    long current = have.getOrDefault(examId, 0L);
+                    if (recomputed != current) {
+                        drift.add(new Drift(examId, key, current, recomputed));
+                    }
+                }
+            }
+
+            boolean repaired = false;
+            if (repair && !drift.isEmpty()) {
+                State loaded = load();
+                barrier.publish(() -> install(loaded));
+                repaired = true;
+            }
+            return new VerificationReport(drift.isEmpty(), examIds.size(), drift, repaired);
+        } finally {
+            barrier.open();
+        }
+    }
+
+    /**
+     * Regelmässige Abstimmung mit der Datenbank; Abweichungen werden als
+     * Event {@code exam.stats.drift} protokolliert und, falls
+     * {@code app.stats.reconcile.repair} gesetzt ist, behoben.
+     */
+    @Scheduled(initialDelayString = "${app.stats.reconcile.interval-ms:600000}",
+               fixedDelayString = "${app.stats.reconcile.interval-ms:600000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        VerificationReport report;
+        try {
+            report = verify(repairOnDrift);
+        } catch (ServiceUnavailableException e) {
+            eventLogger.event("exam.stats.reconcile.skipped").field("reason", e.getMessage()).emit();
+            return;
+        }
+        if (!report.consistent()) {
+            eventLogger.event("exam.stats.drift")
+                    .field("exams", report.exams())
+                    .field("drifted", report.drift().size())
+                    .field("firstExamId", report.drift().get(0).examId())
+                    .field("repaired", report.repaired())
+                    .emit();
+        }
+    }
+
+    // Reads the tables into a fresh state; the barrier is closed, the lock is not held
+    private State load() {
+        State loaded = new State();
+        try (Stream<GradeRow> rows = resultRepository.streamGrades()) {
+            rows.forEach(row -> {
+                if (row.examId() != null && isGrade(row.value())) {
+                    loaded.applyResult(row.examId(), row.personId(), row.value(), 1);
+                }
+            });
+        }
+        try (Stream<GradeRow> rows = estimateRepository.streamGrades()) {
+            rows.forEach(row -> {
+                if (row.examId() != null && row.slot() != null && isGrade(row.value())) {
+                    loaded.applyEstimate(row.examId(), row.personId(), row.slot(), row.value(), 1);
+                }
+            });
+        }
+        return loaded;
+    }
+
+    private Void install(State loaded) {
+        lock.lock();
+        try {
+            state = loaded;
+        } finally {
+            lock.unlock();
+        }
+        return null;
+    }
+
+    private <T> T locked(Supplier<T> read) {
+        lock.lock();
+        try {
+            return read.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock
+    private Map<String, Map<Long, Long>> maintainedCounters() {
+        Map<String, Map<Long, Long>> maintained = new LinkedHashMap<>();
+        state.exams.forEach((examId, counters) -> {
+            for (int g = MIN_GRADE; g <= MAX_GRADE; g++) {
+                putNonZero(maintained, "grade:" + g, examId, counters.grades[g]);
+            }
+            for (EstimateSlot slot : SLOTS) {
+                for (int v = MIN_GRADE; v <= MAX_GRADE; v++) {
+                    putNonZero(maintained, "estimate:" + slot + ":" + v, examId, counters.estimates[slot.ordinal()][v]);
+                }
+                for (int e = 0; e < counters.errors[slot.ordinal()].length; e++) {
+                    putNonZero(maintained, "error:" + slot + ":" + (e - ERROR_OFFSET), examId,
+                            counters.errors[slot.ordinal()][e]);
+                }
+            }
+        });
+        return maintained;
+    }
+
+    // Caller holds the lock
+    private static ExamStats toStats(Long examId, Counters counters) {
+        long count = 0;
+        long sum = 0;
+        long sumOfSquares = 0;
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        for (int g = MIN_GRADE; g <= MAX_GRADE; g++) {
+            long n = counters.grades[g];
+            histogram.put(g, n);
+            count += n;
+            sum += n * g;
+            sumOfSquares += n * g * g;
+        }
+
+        Double mean = null;
+        Double median = null;
+        Double standardDeviation = null;
+        if (count > 0) {
+            mean = (double) sum / count;
+            standardDeviation = Math.sqrt(Math.max(0.0, (double) sumOfSquares / count - mean * mean));
+            median = (gradeAtRank(counters.grades, (count - 1) / 2) + gradeAtRank(counters.grades, count / 2)) / 2.0;
+        }
+
+        List<ExamStats.EstimateAccuracy> accuracy = new ArrayList<>(SLOTS.length);
+        for (EstimateSlot slot : SLOTS) {
+            long[] estimates = counters.estimates[slot.ordinal()];
+            long estimateCount = 0;
+            long estimateSum = 0;
+            for (int v = MIN_GRADE; v <= MAX_GRADE; v++) {
+                estimateCount += estimates[v];
+                estimateSum += estimates[v] * v;
+            }
+            long[] errors = counters.errors[slot.ordinal()];
+            long pairs = 0;
+            long errorSum = 0;
+            long absoluteSum = 0;
+            long squareSum = 0;
+            for (int i = 0; i < errors.length; i++) {
+                long error = i - ERROR_OFFSET;
+                pairs += errors[i];
+                errorSum += errors[i] * error;
+                absoluteSum += errors[i] * Math.abs(error);
+                squareSum += errors[i] * error * error;
+            }
+            accuracy.add(new ExamStats.EstimateAccuracy(slot, estimateCount,
+                    estimateCount == 0 ? null : (double) estimateSum / estimateCount,
+                    pairs,
+                    pairs == 0 ? null : (double) errorSum / pairs,
+                    pairs == 0 ? null : (double) absoluteSum / pairs,
+                    pairs == 0 ? null : Math.sqrt((double) squareSum / pairs)));
+        }
+        return new ExamStats(examId, count, mean, median, standardDeviation, histogram, accuracy);
+    }
+
+    // Grade of the rank-th smallest result (0-based)
+    private static int gradeAtRank(long[] grades, long rank) {
+        long seen = 0;
+        for (int g = MIN_GRADE; g <= MAX_GRADE; g++) {
+            seen += grades[g];
+            if (rank < seen) {
+                return g;
+            }
+        }
+        return MAX_GRADE;
+    }
+
+    private static void putNonZero(Map<String, Map<Long, Long>> target, String key, Long examId, long value) {
+        if (value != 0) {
+            target.computeIfAbsent(key, k -> new HashMap<>()).put(examId, value);
+        }
+    }
+}
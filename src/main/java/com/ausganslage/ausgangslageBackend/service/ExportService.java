@@ -0,0 +1,162 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.dto.EstimateView;
+import com.ausganslage.ausgangslageBackend.dto.ResultView;
+import com.ausganslage.ausgangslageBackend.exception.InvalidOperationException;
+import com.ausganslage.ausgangslageBackend.repository.EstimateRepository;
+import com.ausganslage.ausgangslageBackend.repository.ResultRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Export von Results und Schätzungen mit konstantem Speicherbedarf.
+ * Die Zeilen kommen über einen Datenbank-Cursor als DTO-Projektion, landen
+ * also nie als Entities im Persistence Context, und werden direkt in den Response-Stream
+ * geschrieben, der regelmässig geflusht wird.
+ */
+@Service
+public class ExportService {
+
+    private static final int WRITE_BUFFER = 16 * 1024;
+
+    private final ResultRepository resultRepository;
+    private final EstimateRepository estimateRepository;
+    private final ObjectWriter resultWriter;
+    private final ObjectWriter estimateWriter;
+    private final int flushEvery;
+
+    public ExportService(ResultRepository resultRepository, EstimateRepository estimateRepository,
+                         ObjectMapper objectMapper,
+                         @Value("${app.export.flush-every-rows:1000}") int flushEvery) {
+        this.resultRepository = resultRepository;
+        this.estimateRepository = estimateRepository;
+        this.resultWriter = objectMapper.writerFor(ResultView.class);
+        this.estimateWriter = objectMapper.writerFor(EstimateView.class);
+        this.flushEvery = flushEvery;
+    }
+
+    /**
+     * Unterstützte Exportformate.
+     */
+    public enum Format {
+        CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8)),
+        NDJSON("ndjson", new MediaType("application", "x-ndjson", StandardCharsets.UTF_8));
+
+        private final String extension;
+        private final MediaType mediaType;
+
+        Format(String extension, MediaType mediaType) {
+            this.extension = extension;
+            this.mediaType = mediaType;
+        }
+
+        public String extension() { return extension; }
+        public MediaType mediaType() { return mediaType; }
+
+        public static Format parse(String value) throws InvalidOperationException {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new InvalidOperationException("Unbekanntes Exportformat: " + value + " (erlaubt: csv, ndjson)");
+        }
+    }
+
+    /**
+     * Schreibt alle Results eines Exams in den Stream.
+     *
+     * @return Anzahl geschriebener Zeilen
+     */
+    @Transactional(readOnly = true)
+    public long exportResults(Long examId, Format format, OutputStream out) throws IOException {
+        try (Stream<ResultView> rows = resultRepository.streamViewsByExamId(examId)) {
+            Writer writer = writer(out);
+            if (format == Format.CSV) {
+                writer.write("id,examId,personId,personName,result\n");
+            }
+            long count = 0;
+            Iterator<ResultView> it = rows.iterator();
+            while (it.hasNext()) {
+                ResultView row = it.next();
+                if (format == Format.CSV) {
+                    writer.write(row.id() + "," + row.examId() + "," + csv(row.personId()) + ","
+                            + csv(row.personName()) + "," + csv(row.result()) + "\n");
+                } else {
+                    writer.write(resultWriter.writeValueAsString(row));
+                    writer.write('\n');
+                }
+                count = afterRow(writer, count);
+            }
+            writer.flush();
+            return count;
+        }
+    }
+
+    /**
+     * Schreibt alle Schätzungen eines Exams in den Stream.
+     *
+     * @return Anzahl geschriebener Zeilen
+     */
+    @Transactional(readOnly = true)
+    public long exportEstimates(Long examId, Format format, OutputStream out) throws IOException {
+        try (Stream<EstimateView> rows = estimateRepository.streamViewsByExamId(examId)) {
+            Writer writer = writer(out);
+            if (format == Format.CSV) {
+                writer.write("id,examId,personId,personName,slot,value\n");
+            }
+            long count = 0;
+            Iterator<EstimateView> it = rows.iterator();
+            while (it.hasNext()) {
+                EstimateView row = it.next();
+                if (format == Format.CSV) {
+                    writer.write(row.id() + "," + row.examId() + "," + csv(row.personId()) + ","
+                            + csv(row.personName()) + "," + csv(row.slot()) + "," + csv(row.value()) + "\n");
+                } else {
+                    writer.write(estimateWriter.writeValueAsString(row));
+                    writer.write('\n');
+                }
+                count = afterRow(writer, count);
+            }
+            writer.flush();
+            return count;
+        }
+    }
+
+    private static Writer writer(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER);
+    }
+
+    // Periodic flush pushes a chunk to the client and keeps the buffer bounded
+    private long afterRow(Writer writer, long count) throws IOException {
+        count++;
+        if (count % flushEvery == 0) {
+            writer.flush();
+        }
+        return count;
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String s = value.toString();
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+            return s;
+        }
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,92 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.model.Person;
+import com.ausganslage.ausgangslageBackend.model.Result;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.function.Consumer;
+
+/**
+ * JPA-Listener, der jede Änderung an {@link Result} und {@link Person} an den
+ * {@link LeaderboardService} weiterreicht.
+ * Greift für alle Schreibpfade: {@code addResult}, direkte Repository-Aufrufe
+ * und das Cascade-Delete beim Löschen eines Exams.
+ * Die Deltas werden erst nach dem Commit angewendet, damit ein Rollback
+ * die Rangliste nicht verfälscht. Jede Transaktion meldet sich dabei an der
+ * {@link WriteBarrier} des Service an, damit Neuaufbau und Verifikation nie
+ * zwischen Commit und Delta lesen.
+ */
+public class LeaderboardEntityListener {
+
+    // Lazy lookup: listeners are created while the EntityManagerFactory is still being built
+    private final ObjectProvider<LeaderboardService> leaderboardService;
+
+    public LeaderboardEntityListener(ObjectProvider<LeaderboardService> leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    @PostLoad
+    public void onLoad(Object entity) {
+        if (entity instanceof Result result) {
+            result.rememberStoredState();
+        }
+    }
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        if (entity instanceof Result result) {
+            Long personId = result.getPersonId();
+            int points = LeaderboardService.pointsFor(result.getResult());
+            result.rememberStoredState();
+            afterCommit(service -> service.applyDelta(personId, points));
+        } else if (entity instanceof Person person) {
+            Long personId = person.getId();
+            String name = person.getName();
+            afterCommit(service -> service.upsertPerson(personId, name));
+        }
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        if (entity instanceof Result result) {
+            Long oldPersonId = result.getStoredPersonId();
+            int oldPoints = LeaderboardService.pointsFor(result.getStoredResult());
+            Long newPersonId = result.getPersonId();
+            int newPoints = LeaderboardService.pointsFor(result.getResult());
+            result.rememberStoredState();
+            afterCommit(service -> {
+                service.applyDelta(oldPersonId, -oldPoints);
+                service.applyDelta(newPersonId, newPoints);
+            });
+        } else if (entity instanceof Person person) {
+            Long personId = person.getId();
+            String name = person.getName();
+            afterCommit(service -> service.upsertPerson(personId, name));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof Result result) {
+            Long personId = result.getStoredPersonId();
+            int points = LeaderboardService.pointsFor(result.getStoredResult());
+            afterCommit(service -> service.applyDelta(personId, -points));
+        } else if (entity instanceof Person person) {
+            Long personId = person.getId();
+            afterCommit(service -> service.removePerson(personId));
+        }
+    }
+
+    private void afterCommit(Consumer<LeaderboardService> change) {
+        LeaderboardService service = leaderboardService.getIfAvailable();
+        if (service == null) {
+            // No leaderboard in this context (e.g. sliced tests)
+            return;
+        }
+        service.barrier().runAfterCommit(() -> change.accept(service));
+    }
+}
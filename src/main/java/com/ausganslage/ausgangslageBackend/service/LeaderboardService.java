@@ -0,0 +1,374 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.controller.LeaderboardController.LeaderboardEntry;
+import com.ausganslage.ausgangslageBackend.dto.PersonPoints;
+import com.ausganslage.ausgangslageBackend.exception.ServiceUnavailableException;
+import com.ausganslage.ausgangslageBackend.repository.PersonRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Inkrementell gepflegte Rangliste.
+ * Statt bei jeder Anfrage alle Personen und deren Results zu laden (N+1),
+ * hält der Service die Punktzahl jeder Person im Speicher und wird vom
+ * {@link LeaderboardEntityListener} bei jeder Result-Änderung aktualisiert.
+ * Lesende Anfragen erhalten einen vorsortierten, unveränderlichen Snapshot;
+ * Rang- und Top-K-Abfragen laufen über den {@link PointsRankIndex} in O(log n).
+ * Gleichstände erhalten denselben Rang (1, 2, 2, 4), innerhalb eines
+ * Gleichstands wird nach Personen-ID sortiert.
+ * Neuaufbau und Verifikation lesen die Punktesummen hinter einer
+ * {@link WriteBarrier}, ohne den Lock zu halten; so zählt keine Änderung
+ * zugleich in der Abfrage und als Delta.
+ */
+@Service
+public class LeaderboardService {
+
+    private final PersonRepository personRepository;
+    private final WriteBarrier barrier;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Replaced as a whole by a rebuild; guarded by lock
+    private State state = new State();
+
+    // Presorted snapshot, null after a change until the next read rebuilds it
+    private volatile List<LeaderboardEntry> snapshot;
+
+    // Bumped on every change; listeners are notified outside the lock
+    private final AtomicLong version = new AtomicLong();
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+
+    public LeaderboardService(PersonRepository personRepository,
+                              @Value("${app.leaderboard.rebuild.drain-timeout-ms:5000}") long drainTimeoutMs,
+                              @Value("${app.leaderboard.rebuild.writer-wait-ms:200}") long writerWaitMs) {
+        this.personRepository = personRepository;
+        this.barrier = new WriteBarrier("Rangliste", drainTimeoutMs, writerWaitMs);
+    }
+
+    private static final class Standing {
+        final Long personId;
+        String name;
+        long points;
+
+        Standing(Long personId, String name, long points) {
+            this.personId = personId;
+            this.name = name;
+            this.points = points;
+        }
+    }
+
+    // Standings and their rank index; a rebuild fills a fresh one without the lock
+    private static final class State {
+        final Map<Long, Standing> standings = new HashMap<>();
+        final PointsRankIndex rankIndex = new PointsRankIndex();
+    }
+
+    /**
+     * Eine Abweichung zwischen gepflegtem und neu berechnetem Punktestand.
+     */
+    public record Drift(Long personId, long maintainedPoints, long recomputedPoints) {}
+
+    /**
+     * Ergebnis einer Verifikation gegen die Datenbank.
+     */
+    public record VerificationReport(boolean consistent, int persons, List<Drift> drift, boolean repaired) {}
+
+    /**
+     * Punkte für eine Note: (6 - Note) * 10, nie negativ.
+     */
+    public static int pointsFor(Integer grade) {
+        if (grade == null) {
+            return 0;
+        }
+        return Math.max(0, (6 - grade) * 10);
+    }
+
+    @PostConstruct
+    void init() {
+        try {
+            rebuild();
+        } catch (ServiceUnavailableException e) {
+            // Nothing writes before the context is up, so the barrier cannot be held
+            throw new IllegalStateException("Rangliste konnte nicht aufgebaut werden", e);
+        }
+    }
+
+    /**
+     * Liefert die aktuelle Rangliste, absteigend nach Punkten sortiert.
+     */
+    public List<LeaderboardEntry> getLeaderboard() {
+        List<LeaderboardEntry> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        lock.lock();
+        try {
+            if (snapshot == null) {
+                snapshot = buildSnapshot();
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Monoton steigender Zähler, der sich bei jeder Änderung erhöht.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Registriert einen Callback, der nach jeder Änderung aufgerufen wird.
+     * Der Callback darf nicht blockieren, er läuft im Thread des Schreibers.
+     */
+    public void addChangeListener(Runnable listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Liefert die besten {@code k} Einträge, ohne die ganze Rangliste aufzubauen.
+     */
+    public List<LeaderboardEntry> top(int k) {
+        List<LeaderboardEntry> current = snapshot;
+        if (current != null) {
+            return current.subList(0, Math.min(k, current.size()));
+        }
+        lock.lock();
+        try {
+            return collect(k);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Liefert Rang und Punktestand einer einzelnen Person.
+     */
+    public Optional<LeaderboardEntry> rankOf(Long personId) {
+        lock.lock();
+        try {
+            Standing standing = state.standings.get(personId);
+            if (standing == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new LeaderboardEntry(
+                    standing.personId, standing.name, (int) standing.points, state.rankIndex.rankOf(standing.points)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Addiert ein Punkte-Delta zum Stand einer Person.
+     */
+    public void applyDelta(Long personId, long delta) {
+        if (personId == null || delta == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            Standing standing = state.standings.get(personId);
+            if (standing == null) {
+                standing = new Standing(personId, null, 0);
+                state.standings.put(personId, standing);
+                state.rankIndex.add(personId, 0);
+            }
+            long oldPoints = standing.points;
+            standing.points += delta;
+            state.rankIndex.move(personId, oldPoints, standing.points);
+            snapshot = null;
+        } finally {
+            lock.unlock();
+        }
+        changed();
+    }
+
+    /**
+     * Nimmt eine Person auf oder aktualisiert ihren Namen.
+     */
+    public void upsertPerson(Long personId, String name) {
+        if (personId == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            Standing standing = state.standings.get(personId);
+            if (standing == null) {
+                state.standings.put(personId, new Standing(personId, name, 0));
+                state.rankIndex.add(personId, 0);
+            } else {
+                standing.name = name;
+            }
+            snapshot = null;
+        } finally {
+            lock.unlock();
+        }
+        changed();
+    }
+
+    public void removePerson(Long personId) {
+        boolean removedAny;
+        lock.lock();
+        try {
+            Standing removed = state.standings.remove(personId);
+            removedAny = removed != null;
+            if (removedAny) {
+                state.rankIndex.remove(personId, removed.points);
+                snapshot = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (removedAny) {
+            changed();
+        }
+    }
+
+    // Writers register here through the LeaderboardEntityListener
+    WriteBarrier barrier() {
+        return barrier;
+    }
+
+    /**
+     * Verwirft den gepflegten Zustand und berechnet alle Punktestände neu
+     * (eine einzige Aggregat-Abfrage).
+     *
+     * @throws ServiceUnavailableException wenn laufende Schreib-Transaktionen
+     *                                     nicht rechtzeitig abschliessen oder
+     *                                     den Neuaufbau überholen
+     */
+    public void rebuild() throws ServiceUnavailableException {
+        barrier.close();
+        try {
+            State loaded = load(personRepository.sumPointsByPerson());
+            barrier.publish(() -> install(loaded));
+        } finally {
+            barrier.open();
+        }
+        changed();
+    }
+
+    /**
+     * Vergleicht die gepflegten Punktestände mit einer vollständigen Neuberechnung.
+     *
+     * @param repair bei Abweichungen den Zustand aus der Neuberechnung übernehmen
+     * @return Bericht mit allen Abweichungen
+     * @throws ServiceUnavailableException wenn laufende Schreib-Transaktionen
+     *                                     nicht rechtzeitig abschliessen oder
+     *                                     die Neuberechnung überholen
+     */
+    public VerificationReport verify(boolean repair) throws ServiceUnavailableException {
+        VerificationReport report;
+        barrier.close();
+        try {
+            // Aggregate without the lock: deltas are held off by the barrier, reads stay unblocked
+            List<PersonPoints> recomputed = personRepository.sumPointsByPerson();
+            report = barrier.publish(() -> compare(recomputed, repair));
+        } finally {
+            barrier.open();
+        }
+        if (report.repaired()) {
+            changed();
+        }
+        return report;
+    }
+
+    private VerificationReport compare(List<PersonPoints> recomputed, boolean repair) {
+        lock.lock();
+        try {
+            Map<Long, Long> expected = new HashMap<>();
+            for (PersonPoints row : recomputed) {
+                expected.put(row.personId(), row.pointsOrZero());
+            }
+
+            List<Drift> drift = new ArrayList<>();
+            for (Map.Entry<Long, Long> e : expected.entrySet()) {
+                Standing standing = state.standings.get(e.getKey());
+                long maintained = standing == null ? -1 : standing.points;
+                if (maintained != e.getValue()) {
+                    drift.add(new Drift(e.getKey(), maintained, e.getValue()));
+                }
+            }
+            for (Standing standing : state.standings.values()) {
+                if (!expected.containsKey(standing.personId)) {
+                    drift.add(new Drift(standing.personId, standing.points, -1));
+                }
+            }
+
+            boolean repaired = false;
+            if (repair && !drift.isEmpty()) {
+                state = load(recomputed);
+                snapshot = null;
+                repaired = true;
+            }
+            return new VerificationReport(drift.isEmpty(), expected.size(), drift, repaired);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void changed() {
+        version.incrementAndGet();
+        for (Runnable listener : changeListeners) {
+            listener.run();
+        }
+    }
+
+    private static State load(List<PersonPoints> rows) {
+        State loaded = new State();
+        for (PersonPoints row : rows) {
+            loaded.standings.put(row.personId(), new Standing(row.personId(), row.name(), row.pointsOrZero()));
+            loaded.rankIndex.add(row.personId(), row.pointsOrZero());
+        }
+        return loaded;
+    }
+
+    private Void install(State loaded) {
+        lock.lock();
+        try {
+            state = loaded;
+            snapshot = null;
+        } finally {
+            lock.unlock();
+        }
+        return null;
+    }
+
+    // Caller holds the lock
+    private List<LeaderboardEntry> buildSnapshot() {
+        return Collections.unmodifiableList(collect(Integer.MAX_VALUE));
+    }
+
+    // Walks the rank index from the top; caller holds the lock
+    private List<LeaderboardEntry> collect(int limit) {
+        List<LeaderboardEntry> entries = new ArrayList<>((int) Math.min(limit, state.rankIndex.size()));
+        int rank = 1;
+        Iterator<Map.Entry<Integer, TreeSet<Long>>> it = state.rankIndex.descending();
+        while (it.hasNext() && entries.size() < limit) {
+            TreeSet<Long> bucket = it.next().getValue();
+            for (Long personId : bucket) {
+                if (entries.size() >= limit) {
+                    break;
+                }
+                Standing s = state.standings.get(personId);
+                entries.add(new LeaderboardEntry(s.personId, s.name, (int) s.points, rank));
+            }
+            rank += bucket.size();
+        }
+        return entries;
+    }
+}
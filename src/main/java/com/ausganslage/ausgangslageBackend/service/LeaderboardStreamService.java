@@ -0,0 +1,203 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.controller.LeaderboardController.LeaderboardEntry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Live-Rangliste über Server-Sent Events.
+ * Änderungen am {@link LeaderboardService} werden über ein kurzes Zeitfenster
+ * gesammelt und als ein einziger Diff-Frame verschickt, der nur Einträge mit
+ * geänderten Punkten, Rang oder Namen enthält.
+ * Jeder Abonnent hat einen begrenzten Puffer; läuft er über, wird der Puffer
+ * verworfen und durch einen vollständigen Snapshot ersetzt. Schreiber und
+ * andere Abonnenten warten so nie auf einen langsamen Client.
+ */
+@Service
+public class LeaderboardStreamService {
+
+    public static final String EVENT_SNAPSHOT = "snapshot";
+    public static final String EVENT_DIFF = "diff";
+
+    private final LeaderboardService leaderboardService;
+    private final long coalesceWindowMs;
+    private final int bufferSize;
+    private final long emitterTimeoutMs;
+
+    // All diff computation runs on this single thread, so the base snapshot needs no locking
+    private final ScheduledExecutorService broadcaster = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "leaderboard-broadcaster");
+        t.setDaemon(true);
+        return t;
+    });
+    // One virtual thread per draining subscriber: a blocked socket only parks its own thread
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    // Last broadcast state, confined to the broadcaster thread
+    private Map<Long, LeaderboardEntry> base = new HashMap<>();
+    private List<LeaderboardEntry> baseOrdered = List.of();
+    private long baseVersion = -1;
+
+    public LeaderboardStreamService(LeaderboardService leaderboardService,
+                                    @Value("${app.leaderboard.stream.coalesce-window-ms:250}") long coalesceWindowMs,
+                                    @Value("${app.leaderboard.stream.buffer-size:16}") int bufferSize,
+                                    @Value("${app.leaderboard.stream.timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.leaderboardService = leaderboardService;
+        this.coalesceWindowMs = coalesceWindowMs;
+        this.bufferSize = bufferSize;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        leaderboardService.addChangeListener(this::scheduleFlush);
+    }
+
+    /**
+     * Ein SSE-Frame: vollständiger Snapshot oder Diff seit dem letzten Frame.
+     */
+    public record Frame(String event, long version, List<LeaderboardEntry> entries, List<Long> removed) {}
+
+    private final class Subscriber {
+        final SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        final ArrayBlockingQueue<Frame> queue = new ArrayBlockingQueue<>(bufferSize);
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        void offer(Frame frame, Frame resync) {
+            if (!queue.offer(frame)) {
+                // Too slow: drop the backlog, the snapshot supersedes it
+                queue.clear();
+                queue.offer(resync);
+            }
+            drain();
+        }
+
+        void drain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drainLoop);
+            }
+        }
+
+        private void drainLoop() {
+            try {
+                Frame frame;
+                while ((frame = queue.poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .name(frame.event())
+                            .id(Long.toString(frame.version()))
+                            .data(frame, MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // A frame may have arrived between the last poll and the reset
+            if (!queue.isEmpty()) {
+                drain();
+            }
+        }
+    }
+
+    /**
+     * Registriert einen neuen Abonnenten. Er erhält zuerst einen Snapshot,
+     * danach nur noch Diffs.
+     */
+    public SseEmitter subscribe() {
+        Subscriber subscriber = new Subscriber();
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+
+        broadcaster.execute(() -> {
+            // Bring the base up to date first so later diffs apply cleanly to this snapshot
+            flush();
+            subscribers.add(subscriber);
+            subscriber.offer(snapshotFrame(), snapshotFrame());
+        });
+        return subscriber.emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            broadcaster.schedule(this::flush, coalesceWindowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Broadcaster thread only
+    private void flush() {
+        flushScheduled.set(false);
+        long version = leaderboardService.version();
+        if (version == baseVersion) {
+            return;
+        }
+        List<LeaderboardEntry> current = leaderboardService.getLeaderboard();
+
+        Map<Long, LeaderboardEntry> next = new HashMap<>(current.size() * 2);
+        List<LeaderboardEntry> changed = new ArrayList<>();
+        for (LeaderboardEntry entry : current) {
+            next.put(entry.id, entry);
+            LeaderboardEntry previous = base.get(entry.id);
+            if (previous == null
+                    || !Objects.equals(previous.points, entry.points)
+                    || !Objects.equals(previous.rank, entry.rank)
+                    || !Objects.equals(previous.name, entry.name)) {
+                changed.add(entry);
+            }
+        }
+        Set<Long> gone = new HashSet<>(base.keySet());
+        gone.removeAll(next.keySet());
+
+        base = next;
+        baseOrdered = current;
+        baseVersion = version;
+
+        if (subscribers.isEmpty() || (changed.isEmpty() && gone.isEmpty())) {
+            return;
+        }
+        Frame diff = new Frame(EVENT_DIFF, version, changed, List.copyOf(gone));
+        Frame resync = snapshotFrame();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(diff, resync);
+        }
+    }
+
+    // Broadcaster thread only; the leaderboard snapshot is immutable and already sorted
+    private Frame snapshotFrame() {
+        return new Frame(EVENT_SNAPSHOT, baseVersion, baseOrdered, List.of());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        broadcaster.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+}
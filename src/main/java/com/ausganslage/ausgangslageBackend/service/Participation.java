@@ -0,0 +1,39 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.model.EstimateSlot;
+
+/**
+ * Noten und Schätzungen einer Person in einem Exam, aus denen der
+ * {@link ExamStatsService} die Fehler pro Exam und der
+ * {@link CalibrationService} die Kalibrierung pro Person berechnen.
+ * Noten und Schätzungen liegen zwischen 1 und 6. Results sind pro Person
+ * nicht eindeutig und werden deshalb gezählt; Schätzungen gibt es eine pro
+ * Slot, 0 steht für keine.
+ */
+final class Participation {
+
+    static final int MIN_GRADE = 1;
+    static final int MAX_GRADE = 6;
+    static final EstimateSlot[] SLOTS = EstimateSlot.values();
+
+    final int[] grades = new int[MAX_GRADE + 1];
+    final int[] estimates = new int[SLOTS.length];
+
+    boolean isEmpty() {
+        for (int g = MIN_GRADE; g <= MAX_GRADE; g++) {
+            if (grades[g] != 0) {
+                return false;
+            }
+        }
+        for (int estimate : estimates) {
+            if (estimate != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean isGrade(Integer value) {
+        return value != null && value >= MIN_GRADE && value <= MAX_GRADE;
+    }
+}
@@ -0,0 +1,132 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.exception.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Führt BCrypt-Hashing und -Vergleiche auf einem eigenen, begrenzten
+ * Executor aus statt auf den Request-Threads von Tomcat.
+ * Ist die Warteschlange voll, wird sofort eine
+ * {@link ServiceUnavailableException} (503 mit Retry-After) geworfen, damit
+ * ein Login-Ansturm nicht alle anderen Endpoints blockiert.
+ */
+@Service
+public class PasswordHashingService {
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+    private final int queueCapacity;
+    private final long timeoutMs;
+    private final int retryAfterSeconds;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public PasswordHashingService(@Value("${app.auth.bcrypt.strength:10}") int strength,
+                                  @Value("${app.auth.hashing.threads:0}") int threads,
+                                  @Value("${app.auth.hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${app.auth.hashing.timeout-ms:5000}") long timeoutMs,
+                                  @Value("${app.auth.hashing.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = queueCapacity;
+        this.timeoutMs = timeoutMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(this.threads, this.threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "bcrypt-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Ergebnis eines Passwort-Vergleichs. {@code upgradedHash} ist gesetzt,
+     * wenn der gespeicherte Hash mit geringeren Kosten erstellt wurde als
+     * konfiguriert und neu gespeichert werden soll.
+     */
+    public record Verification(boolean matches, String upgradedHash) {}
+
+    /**
+     * Momentaufnahme der Auslastung.
+     */
+    public record Stats(int threads, int queueCapacity, int active, int queued, long largestPoolSize, long rejected) {}
+
+    /**
+     * Erstellt einen BCrypt-Hash mit den konfigurierten Kosten.
+     *
+     * @throws ServiceUnavailableException wenn der Executor ausgelastet ist
+     */
+    public String encode(String rawPassword) throws ServiceUnavailableException {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * Vergleicht ein Passwort mit einem gespeicherten Hash und erstellt bei
+     * Erfolg im selben Task einen neuen Hash, falls die Kosten veraltet sind.
+     *
+     * @throws ServiceUnavailableException wenn der Executor ausgelastet ist
+     */
+    public Verification verify(String rawPassword, String storedHash) throws ServiceUnavailableException {
+        return run(() -> {
+            if (storedHash == null || !encoder.matches(rawPassword, storedHash)) {
+                return new Verification(false, null);
+            }
+            String upgraded = encoder.upgradeEncoding(storedHash) ? encoder.encode(rawPassword) : null;
+            return new Verification(true, upgraded);
+        });
+    }
+
+    public Stats stats() {
+        return new Stats(threads, queueCapacity, executor.getActiveCount(), executor.getQueue().size(),
+                executor.getLargestPoolSize(), rejected.get());
+    }
+
+    private <T> T run(Callable<T> task) throws ServiceUnavailableException {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new ServiceUnavailableException(
+                "Zu viele gleichzeitige Anmeldungen, bitte später erneut versuchen", retryAfterSeconds);
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ServiceUnavailableException("Passwort-Prüfung dauerte zu lange", retryAfterSeconds, e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Passwort-Prüfung wurde unterbrochen", retryAfterSeconds, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Passwort-Hashing fehlgeschlagen", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
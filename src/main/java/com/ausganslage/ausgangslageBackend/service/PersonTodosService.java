@@ -0,0 +1,83 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.dto.TodoItem;
+import com.ausganslage.ausgangslageBackend.model.Person;
+import com.ausganslage.ausgangslageBackend.repository.TodoRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Schreibt eine Seite von Personen samt ihren Todos als JSON-Array in den
+ * Response-Stream. Die Todos aller Personen der Seite kommen aus einer
+ * einzigen {@code IN}-Abfrage, nach Person sortiert, und werden beim Lesen
+ * gruppiert; pro Person folgen auf die Todos die Anzahl offener und
+ * erledigter Todos. Der Speicherbedarf hängt damit nicht von der Anzahl
+ * Todos ab.
+ */
+@Service
+public class PersonTodosService {
+
+    private final TodoRepository todoRepository;
+    private final ObjectMapper objectMapper;
+
+    public PersonTodosService(TodoRepository todoRepository, ObjectMapper objectMapper) {
+        this.todoRepository = todoRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param persons die Personen der Seite, aufsteigend nach ID
+     */
+    @Transactional(readOnly = true)
+    public void writePage(List<Person> persons, OutputStream out) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+             Stream<TodoItem> rows = persons.isEmpty()
+                     ? Stream.empty()
+                     : todoRepository.streamItemsByPersonIds(persons.stream().map(Person::getId).toList())) {
+            // The servlet container owns the response stream
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<TodoItem> todos = rows.iterator();
+            TodoItem pending = todos.hasNext() ? todos.next() : null;
+
+            json.writeStartArray();
+            for (Person person : persons) {
+                json.writeStartObject();
+                json.writeNumberField("id", person.getId());
+                json.writeStringField("name", person.getName());
+                json.writeStringField("email", person.getEmail());
+
+                long open = 0;
+                long completed = 0;
+                json.writeArrayFieldStart("todos");
+                // Rows are ordered like the page, so this person's todos are next in the cursor
+                while (pending != null && pending.personId().equals(person.getId())) {
+                    json.writeStartObject();
+                    json.writeNumberField("id", pending.id());
+                    json.writeStringField("title", pending.title());
+                    json.writeBooleanField("completed", pending.completed());
+                    json.writeEndObject();
+                    if (pending.completed()) {
+                        completed++;
+                    } else {
+                        open++;
+                    }
+                    pending = todos.hasNext() ? todos.next() : null;
+                }
+                json.writeEndArray();
+
+                json.writeNumberField("openTodos", open);
+                json.writeNumberField("completedTodos", completed);
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        }
+    }
+}
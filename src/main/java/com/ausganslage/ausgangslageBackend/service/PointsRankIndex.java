@@ -0,0 +1,130 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Ordnungsstatistik über Punktestände für den {@link LeaderboardService}.
+ * Ein Fenwick-Baum zählt Personen pro Punktzahl und beantwortet "wie viele
+ * Personen haben mehr Punkte" in O(log P); die Buckets pro Punktzahl liefern
+ * die Top-K in absteigender Reihenfolge ohne Sortierung.
+ * Punktestände sind auf 0 bis {@link #MAX_SLOT} begrenzt: negative zählen
+ * als 0, höhere teilen sich den obersten Bucket, damit der Baum höchstens
+ * {@link #MAX_CAPACITY} Einträge belegt. Eine Note bringt höchstens 50
+ * Punkte ((6 - Note) * 10), die Obergrenze braucht also über 80000 Noten
+ * einer Person und wird praktisch nie erreicht.
+ * Nicht thread-safe: der Aufrufer hält den Lock des Services.
+ */
+class PointsRankIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    // Power of two, so doubling from INITIAL_CAPACITY lands on it exactly
+    static final int MAX_CAPACITY = 1 << 22;
+    static final int MAX_SLOT = MAX_CAPACITY - 1;
+
+    // Fenwick tree over point totals, 1-based internally
+    private long[] tree = new long[INITIAL_CAPACITY + 1];
+    private int capacity = INITIAL_CAPACITY;
+    private long size;
+
+    // Person ids per point total, ascending id within a bucket for stable tie order
+    private final NavigableMap<Integer, TreeSet<Long>> buckets = new TreeMap<>();
+
+    void add(Long personId, long points) {
+        int slot = slotOf(points);
+        ensureCapacity(slot);
+        buckets.computeIfAbsent(slot, p -> new TreeSet<>()).add(personId);
+        update(slot, 1);
+        size++;
+    }
+
+    void remove(Long personId, long points) {
+        int slot = slotOf(points);
+        TreeSet<Long> bucket = buckets.get(slot);
+        if (bucket == null || !bucket.remove(personId)) {
+            return;
+        }
+        if (bucket.isEmpty()) {
+            buckets.remove(slot);
+        }
+        update(slot, -1);
+        size--;
+    }
+
+    void move(Long personId, long oldPoints, long newPoints) {
+        if (slotOf(oldPoints) == slotOf(newPoints)) {
+            return;
+        }
+        remove(personId, oldPoints);
+        add(personId, newPoints);
+    }
+
+    void clear() {
+        tree = new long[INITIAL_CAPACITY + 1];
+        capacity = INITIAL_CAPACITY;
+        size = 0;
+        buckets.clear();
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * Wettkampf-Rang ("1224"): 1 + Anzahl Personen mit strikt mehr Punkten.
+     * Gleichstände erhalten denselben Rang.
+     */
+    int rankOf(long points) {
+        int slot = slotOf(points);
+        long atMost = slot >= capacity ? size : prefix(slot);
+        return (int) (size - atMost) + 1;
+    }
+
+    /**
+     * Iteriert Buckets von der höchsten zur tiefsten Punktzahl.
+     */
+    Iterator<Map.Entry<Integer, TreeSet<Long>>> descending() {
+        return buckets.descendingMap().entrySet().iterator();
+    }
+
+    private static int slotOf(long points) {
+        if (points <= 0) {
+            return 0;
+        }
+        return (int) Math.min(points, MAX_SLOT);
+    }
+
+    private void ensureCapacity(int slot) {
+        if (slot < capacity) {
+            return;
+        }
+        int newCapacity = capacity;
+        while (newCapacity <= slot && newCapacity < MAX_CAPACITY) {
+            newCapacity *= 2;
+        }
+        // Rebuild in O(capacity) from the bucket sizes; amortised by doubling
+        tree = new long[newCapacity + 1];
+        capacity = newCapacity;
+        for (Map.Entry<Integer, TreeSet<Long>> e : buckets.entrySet()) {
+            update(e.getKey(), e.getValue().size());
+        }
+    }
+
+    private void update(int slot, long delta) {
+        for (int i = slot + 1; i <= capacity; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // Number of persons with at most `slot` points
+    private long prefix(int slot) {
+        long sum = 0;
+        for (int i = slot + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,160 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.dto.BatchImportReport;
+import com.ausganslage.ausgangslageBackend.dto.ResultImportRow;
+import com.ausganslage.ausgangslageBackend.exception.InvalidOperationException;
+import com.ausganslage.ausgangslageBackend.exception.ResourceNotFoundException;
+import com.ausganslage.ausgangslageBackend.model.Exam;
+import com.ausganslage.ausgangslageBackend.model.Person;
+import com.ausganslage.ausgangslageBackend.model.Result;
+import com.ausganslage.ausgangslageBackend.repository.ExamRepository;
+import com.ausganslage.ausgangslageBackend.repository.PersonRepository;
+import com.ausganslage.ausgangslageBackend.repository.ResultRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Batch-Import von Results für ein ganzes Exam.
+ * Alle Zeilen werden zuerst geprüft (Personen-IDs mit mengenbasierten
+ * Abfragen statt einer pro Zeile), danach werden nur die gültigen Zeilen
+ * per JDBC-Batching eingefügt. Ungültige Zeilen landen mit Grund im Bericht
+ * und verhindern das Speichern der übrigen nicht.
+ */
+@Service
+public class ResultImportService {
+
+    // Stays well below the bind-parameter limits of common databases
+    private static final int IN_CLAUSE_CHUNK = 1000;
+
+    private final ExamRepository examRepository;
+    private final PersonRepository personRepository;
+    private final ResultRepository resultRepository;
+    private final int maxRows;
+    private final int flushInterval;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ResultImportService(ExamRepository examRepository, PersonRepository personRepository,
+                               ResultRepository resultRepository,
+                               @Value("${app.results.batch.max-rows:10000}") int maxRows,
+                               @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int flushInterval) {
+        this.examRepository = examRepository;
+        this.personRepository = personRepository;
+        this.resultRepository = resultRepository;
+        this.maxRows = maxRows;
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Importiert Results für ein Exam.
+     *
+     * @param examId Exam-ID
+     * @param rows Zeilen mit Person-ID und Note
+     * @return Bericht mit Anzahl gespeicherter Zeilen und Fehlern pro Zeile
+     * @throws ResourceNotFoundException wenn das Exam nicht existiert
+     * @throws InvalidOperationException wenn der Batch leer oder zu gross ist
+     */
+    @Transactional
+    public BatchImportReport importResults(Long examId, List<ResultImportRow> rows)
+            throws ResourceNotFoundException, InvalidOperationException {
+
+        if (rows == null || rows.isEmpty()) {
+            throw new InvalidOperationException("Batch enthält keine Zeilen");
+        }
+        if (rows.size() > maxRows) {
+            throw new InvalidOperationException(
+                "Batch enthält " + rows.size() + " Zeilen, erlaubt sind höchstens " + maxRows);
+        }
+        if (!examRepository.existsById(examId)) {
+            throw new ResourceNotFoundException("Exam", examId);
+        }
+
+        Set<Long> requested = new LinkedHashSet<>();
+        for (ResultImportRow row : rows) {
+            if (row != null && row.personId() != null) {
+                requested.add(row.personId());
+            }
+        }
+        Set<Long> knownPersons = new HashSet<>();
+        Set<Long> alreadyGraded = new HashSet<>();
+        for (List<Long> chunk : chunks(requested)) {
+            knownPersons.addAll(personRepository.findExistingIds(chunk));
+            alreadyGraded.addAll(resultRepository.findPersonIdsWithResult(examId, chunk));
+        }
+
+        List<BatchImportReport.RowError> errors = new ArrayList<>();
+        List<ResultImportRow> valid = new ArrayList<>(rows.size());
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            ResultImportRow row = rows.get(i);
+            String error = validate(row, knownPersons, alreadyGraded, seen);
+            if (error != null) {
+                errors.add(new BatchImportReport.RowError(i, row == null ? null : row.personId(), error));
+            } else {
+                valid.add(row);
+            }
+        }
+
+        Exam exam = entityManager.getReference(Exam.class, examId);
+        for (int i = 0; i < valid.size(); i++) {
+            ResultImportRow row = valid.get(i);
+            Result result = new Result();
+            result.setExam(exam);
+            result.setPerson(entityManager.getReference(Person.class, row.personId()));
+            result.setResult(row.result());
+            entityManager.persist(result);
+
+            // Keep the persistence context small; each flush goes out as one JDBC batch
+            if ((i + 1) % flushInterval == 0) {
+                entityManager.flush();
+                entityManager.clear();
+                exam = entityManager.getReference(Exam.class, examId);
+            }
+        }
+        entityManager.flush();
+
+        return new BatchImportReport(rows.size(), valid.size(), errors);
+    }
+
+    private String validate(ResultImportRow row, Set<Long> knownPersons, Set<Long> alreadyGraded, Set<Long> seen) {
+        if (row == null || row.personId() == null) {
+            return "personId ist erforderlich";
+        }
+        if (row.result() == null || row.result() < 1 || row.result() > 6) {
+            return "Note muss zwischen 1 und 6 liegen";
+        }
+        if (!knownPersons.contains(row.personId())) {
+            return "Person mit ID " + row.personId() + " nicht gefunden";
+        }
+        if (alreadyGraded.contains(row.personId()) || !seen.add(row.personId())) {
+            return "Für diese Person existiert bereits ein Result zu diesem Exam";
+        }
+        return null;
+    }
+
+    private static List<List<Long>> chunks(Set<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        List<Long> current = new ArrayList<>(Math.min(ids.size(), IN_CLAUSE_CHUNK));
+        for (Long id : ids) {
+            current.add(id);
+            if (current.size() == IN_CLAUSE_CHUNK) {
+                chunks.add(current);
+                current = new ArrayList<>(IN_CLAUSE_CHUNK);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,235 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.dto.TodoBatchPatch;
+import com.ausganslage.ausgangslageBackend.dto.TodoBatchReport;
+import com.ausganslage.ausgangslageBackend.dto.TodoItem;
+import com.ausganslage.ausgangslageBackend.exception.InvalidOperationException;
+import com.ausganslage.ausgangslageBackend.exception.ResourceNotFoundException;
+import com.ausganslage.ausgangslageBackend.logging.EventLogger;
+import com.ausganslage.ausgangslageBackend.model.Todo;
+import com.ausganslage.ausgangslageBackend.repository.PersonRepository;
+import com.ausganslage.ausgangslageBackend.repository.TodoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Ändert oder löscht viele Todos in einer Transaktion.
+ * Der aktuelle Zustand wird mit einer {@code IN}-Abfrage pro 1000 IDs
+ * gelesen und bis zum Commit gesperrt, damit die Ergebnisse pro ID auch bei
+ * parallelen Änderungen stimmen; geschrieben wird mit mengenbasierten JPQL-Updates und -Deletes,
+ * nur für Todos, die sich tatsächlich ändern. {@code changed} zählt die
+ * tatsächlich geschriebenen Zeilen. Die Anzahl Statements hängt
+ * damit von der Anzahl Chunks ab, nicht von der Anzahl Todos.
+ * Massenupdates umgehen die Entity-Listener: die ETag-Zähler der
+ * betroffenen Personen und der {@link TodoSearchIndex} werden hier nach dem
+ * Commit nachgeführt.
+ */
+@Service
+public class TodoBatchService {
+
+    // Stays well below the bind-parameter limits of common databases
+    private static final int IN_CLAUSE_CHUNK = 1000;
+
+    private final TodoRepository todoRepository;
+    private final PersonRepository personRepository;
+    private final TodoSearchIndex searchIndex;
+    private final AggregateVersions versions;
+    private final EventLogger eventLogger;
+    private final int maxIds;
+
+    public TodoBatchService(TodoRepository todoRepository, PersonRepository personRepository,
+                            TodoSearchIndex searchIndex, AggregateVersions versions, EventLogger eventLogger,
+                            @Value("${app.todos.batch.max-ids:10000}") int maxIds) {
+        this.todoRepository = todoRepository;
+        this.personRepository = personRepository;
+        this.searchIndex = searchIndex;
+        this.versions = versions;
+        this.eventLogger = eventLogger;
+        this.maxIds = maxIds;
+    }
+
+    /**
+     * Wendet dieselbe Änderung auf alle angegebenen Todos an.
+     *
+     * @param patch IDs und die zu setzenden Felder
+     * @return Ergebnis pro ID: geändert, schon im Zielzustand oder nicht gefunden
+     * @throws InvalidOperationException wenn keine IDs, zu viele IDs oder
+     *                                   kein zu änderndes Feld angegeben sind
+     */
+    @Transactional
+    public TodoBatchReport update(TodoBatchPatch patch) throws InvalidOperationException {
+        if (patch == null || (patch.title() == null && patch.completed() == null)) {
+            throw new InvalidOperationException("Batch ändert weder title noch completed");
+        }
+        Set<Long> ids = requireIds(patch.ids());
+        Map<Long, TodoItem> current = load(ids);
+
+        List<TodoBatchReport.Outcome> outcomes = new ArrayList<>(ids.size());
+        List<TodoItem> changed = new ArrayList<>();
+        for (Long id : ids) {
+            TodoItem item = current.get(id);
+            if (item == null) {
+                outcomes.add(new TodoBatchReport.Outcome(id, TodoBatchReport.Status.NOT_FOUND));
+            } else if ((patch.title() == null || patch.title().equals(item.title()))
+                    && (patch.completed() == null || patch.completed() == item.completed())) {
+                outcomes.add(new TodoBatchReport.Outcome(id, TodoBatchReport.Status.UNCHANGED));
+            } else {
+                outcomes.add(new TodoBatchReport.Outcome(id, TodoBatchReport.Status.UPDATED));
+                changed.add(item);
+            }
+        }
+
+        List<Long> changedIds = changed.stream().map(TodoItem::id).toList();
+        int written = 0;
+        for (List<Long> chunk : chunks(changedIds)) {
+            written += todoRepository.updateByIds(chunk, patch.title(), patch.completed());
+        }
+        bumpPersons(changed);
+        if (patch.title() != null && !changed.isEmpty()) {
+            String title = patch.title();
+            AfterCommit.run(() -> changedIds.forEach(id -> searchIndex.put(indexed(id, title))));
+        }
+
+        emit("update", ids.size(), written);
+        return new TodoBatchReport(ids.size(), written, outcomes);
+    }
+
+    /**
+     * Löscht alle angegebenen Todos.
+     *
+     * @param ids Todo-IDs
+     * @return Ergebnis pro ID: gelöscht oder nicht gefunden
+     * @throws InvalidOperationException wenn keine oder zu viele IDs angegeben sind
+     */
+    @Transactional
+    public TodoBatchReport delete(Collection<Long> ids) throws InvalidOperationException {
+        Set<Long> requested = requireIds(ids);
+        Map<Long, TodoItem> current = load(requested);
+
+        List<TodoBatchReport.Outcome> outcomes = new ArrayList<>(requested.size());
+        for (Long id : requested) {
+            outcomes.add(new TodoBatchReport.Outcome(id, current.containsKey(id)
+                    ? TodoBatchReport.Status.DELETED
+                    : TodoBatchReport.Status.NOT_FOUND));
+        }
+
+        List<Long> existing = new ArrayList<>(current.keySet());
+        int deleted = 0;
+        for (List<Long> chunk : chunks(existing)) {
+            deleted += todoRepository.deleteByIds(chunk);
+        }
+        bumpPersons(current.values());
+        if (!existing.isEmpty()) {
+            AfterCommit.run(() -> existing.forEach(searchIndex::remove));
+        }
+
+        emit("delete", requested.size(), deleted);
+        return new TodoBatchReport(requested.size(), deleted, outcomes);
+    }
+
+    /**
+     * Markiert alle offenen Todos einer Person als erledigt.
+     *
+     * @param personId Person-ID
+     * @return ein Ergebnis pro bisher offenem Todo
+     * @throws ResourceNotFoundException wenn die Person nicht existiert
+     */
+    @Transactional
+    public TodoBatchReport completeAll(Long personId) throws ResourceNotFoundException {
+        if (!personRepository.existsById(personId)) {
+            throw new ResourceNotFoundException("Person", personId);
+        }
+        List<TodoItem> open = todoRepository.findOpenItemsByPersonId(personId);
+
+        // Exactly the ids read above, so the outcomes match what was written
+        List<Long> ids = open.stream().map(TodoItem::id).toList();
+        int written = 0;
+        for (List<Long> chunk : chunks(ids)) {
+            written += todoRepository.updateByIds(chunk, null, true);
+        }
+        if (!ids.isEmpty()) {
+            versions.bumpAfterCommit(AggregateVersions.personTodos(personId));
+        }
+
+        emit("complete-all", ids.size(), written);
+        List<TodoBatchReport.Outcome> outcomes = ids.stream()
+                .map(id -> new TodoBatchReport.Outcome(id, TodoBatchReport.Status.UPDATED))
+                .toList();
+        return new TodoBatchReport(ids.size(), written, outcomes);
+    }
+
+    private Set<Long> requireIds(Collection<Long> ids) throws InvalidOperationException {
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidOperationException("Batch enthält keine IDs");
+        }
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        distinct.remove(null);
+        if (distinct.isEmpty()) {
+            throw new InvalidOperationException("Batch enthält keine IDs");
+        }
+        if (distinct.size() > maxIds) {
+            throw new InvalidOperationException(
+                "Batch enthält " + distinct.size() + " IDs, erlaubt sind höchstens " + maxIds);
+        }
+        return distinct;
+    }
+
+    private Map<Long, TodoItem> load(Set<Long> ids) {
+        Map<Long, TodoItem> items = new HashMap<>(ids.size() * 2);
+        for (List<Long> chunk : chunks(ids)) {
+            for (TodoItem item : todoRepository.findItemsByIds(chunk)) {
+                items.put(item.id(), item);
+            }
+        }
+        return items;
+    }
+
+    private void bumpPersons(Collection<TodoItem> items) {
+        items.stream()
+                .map(TodoItem::personId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(personId -> versions.bumpAfterCommit(AggregateVersions.personTodos(personId)));
+    }
+
+    private static Todo indexed(Long id, String title) {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setTitle(title);
+        return todo;
+    }
+
+    private void emit(String operation, int requested, int changed) {
+        eventLogger.event("todo.batch")
+                .field("operation", operation)
+                .field("requested", requested)
+                .field("changed", changed)
+                .emit();
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        List<Long> current = new ArrayList<>(Math.min(ids.size(), IN_CLAUSE_CHUNK));
+        for (Long id : ids) {
+            current.add(id);
+            if (current.size() == IN_CLAUSE_CHUNK) {
+                chunks.add(current);
+                current = new ArrayList<>(IN_CLAUSE_CHUNK);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,342 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.dto.TodoTitle;
+import com.ausganslage.ausgangslageBackend.model.Todo;
+import com.ausganslage.ausgangslageBackend.repository.TodoRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Invertierter Trigramm-Index über die Todo-Titel im Speicher.
+ * Statt {@code LIKE '%q%'} über die ganze Tabelle werden die sortierten
+ * ID-Listen der Trigramme der Suche geschnitten (kürzeste Liste zuerst) und
+ * nur die verbleibenden Kandidaten gegen den Titel geprüft. Der Aufwand
+ * hängt damit von der seltensten Zeichenfolge der Suche ab, nicht von der
+ * Anzahl aller Todos.
+ * Suchen mit weniger als drei Zeichen haben kein Trigramm und fallen auf
+ * einen Durchlauf über die Titel im Speicher zurück.
+ * Der {@code TodoController} und der {@link TodoBatchService} halten den
+ * Index bei jeder Änderung aktuell, beim Start wird er aus der Datenbank
+ * aufgebaut.
+ */
+@Service
+public class TodoSearchIndex {
+
+    private final TodoRepository todoRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Lower-cased titles, used to verify candidates and to rank
+    private final Map<Long, String> titles = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private long postingCount;
+
+    public TodoSearchIndex(TodoRepository todoRepository) {
+        this.todoRepository = todoRepository;
+    }
+
+    /**
+     * Speicherbedarf und Grösse des Index. {@code estimatedBytes} ist eine
+     * Schätzung aus Objekt-Layouts einer 64-Bit-JVM mit Compressed Oops.
+     */
+    public record Stats(int documents, int trigrams, long postings, long estimatedBytes) {}
+
+    // Sorted, growable list of todo ids containing one trigram
+    private static final class Postings {
+        long[] ids = new long[4];
+        int size;
+
+        void add(long id) {
+            if (size == 0 || ids[size - 1] < id) {
+                // Common case: new todos get increasing ids
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            int insert = -pos - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insert, ids, insert + 1, size - insert);
+            ids[insert] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        // First index >= from whose id is >= target (galloping, then binary search)
+        int seek(int from, long target) {
+            int bound = 1;
+            while (from + bound < size && ids[from + bound] < target) {
+                bound <<= 1;
+            }
+            int pos = Arrays.binarySearch(ids, from + (bound >> 1), Math.min(from + bound + 1, size), target);
+            return pos >= 0 ? pos : -pos - 1;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length + (ids.length >> 1) + 1);
+            }
+        }
+    }
+
+    private record Match(long id, int score, int length) {}
+
+    // Best first: lower score, then shorter title, then lower id
+    private static final Comparator<Match> BEST_FIRST = Comparator.comparingInt(Match::score)
+            .thenComparingInt(Match::length)
+            .thenComparingLong(Match::id);
+
+    /**
+     * Baut den Index aus allen Todos neu auf, nachdem die Anwendung
+     * gestartet ist (also auch nach dem {@code DataLoader}).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            titles.clear();
+            postings.clear();
+            postingCount = 0;
+            try (Stream<TodoTitle> rows = todoRepository.streamTitles()) {
+                rows.forEach(row -> addLocked(row.id(), row.title()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Nimmt ein gespeichertes Todo auf oder ersetzt dessen bisherigen Titel.
+     */
+    public void put(Todo todo) {
+        if (todo == null || todo.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(todo.getId());
+            addLocked(todo.getId(), todo.getTitle());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long todoId) {
+        if (todoId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(todoId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sucht Todos, deren Titel {@code query} enthält (ohne Gross-/Kleinschreibung).
+     *
+     * @param query Suchtext
+     * @param ranked {@code true}: Titel, die mit der Suche beginnen, vor
+     *               Treffern am Wortanfang, vor allen übrigen; bei Gleichstand
+     *               kürzere Titel zuerst. {@code false}: die ersten gefundenen
+     *               Treffer, die Suche bricht beim Limit ab.
+     * @param limit maximale Anzahl Treffer
+     * @return IDs der Treffer in Ergebnisreihenfolge
+     */
+    public List<Long> search(String query, boolean ranked, int limit) {
+        if (query == null || query.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String needle = query.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            MatchCollector collector = new MatchCollector(ranked, limit);
+            if (needle.length() < 3) {
+                scanTitles(needle, collector);
+            } else {
+                intersect(needle, collector);
+            }
+            return collector.ids();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            // HashMap tables: one reference per bucket, load factor 0.75
+            bytes += 4L * tableSize(titles.size()) + 4L * tableSize(postings.size());
+            // titles: node (32) + Long key (16) + String (24) + byte[] header (16)
+            for (String title : titles.values()) {
+                bytes += 88 + title.length();
+            }
+            // postings: node (32) + Long key (16) + Postings (24) + long[] header (16)
+            for (Postings list : postings.values()) {
+                bytes += 88 + 8L * list.ids.length;
+            }
+            return new Stats(titles.size(), postings.size(), postingCount, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void intersect(String needle, MatchCollector collector) {
+        long[] keys = trigrams(needle);
+        Postings[] lists = new Postings[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            lists[i] = postings.get(keys[i]);
+            if (lists[i] == null) {
+                return;
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+        Postings smallest = lists[0];
+        int[] cursors = new int[lists.length];
+        candidates:
+        for (int i = 0; i < smallest.size; i++) {
+            long id = smallest.ids[i];
+            for (int l = 1; l < lists.length; l++) {
+                int pos = lists[l].seek(cursors[l], id);
+                cursors[l] = pos;
+                if (pos == lists[l].size) {
+                    // Every later candidate is larger, so none can be in this list either
+                    return;
+                }
+                if (lists[l].ids[pos] != id) {
+                    continue candidates;
+                }
+            }
+            // All trigrams present; confirm they are contiguous and in order
+            if (!collector.offer(id, titles.get(id), needle)) {
+                return;
+            }
+        }
+    }
+
+    private void scanTitles(String needle, MatchCollector collector) {
+        for (Map.Entry<Long, String> entry : titles.entrySet()) {
+            if (!collector.offer(entry.getKey(), entry.getValue(), needle)) {
+                return;
+            }
+        }
+    }
+
+    private void addLocked(Long id, String title) {
+        if (title == null) {
+            return;
+        }
+        String lower = title.toLowerCase(Locale.ROOT);
+        titles.put(id, lower);
+        for (long key : trigrams(lower)) {
+            postings.computeIfAbsent(key, k -> new Postings()).add(id);
+            postingCount++;
+        }
+    }
+
+    private void removeLocked(Long id) {
+        String previous = titles.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (long key : trigrams(previous)) {
+            Postings list = postings.get(key);
+            if (list != null && list.remove(id)) {
+                postingCount--;
+                if (list.size == 0) {
+                    postings.remove(key);
+                }
+            }
+        }
+    }
+
+    // Distinct trigrams, each packed as three UTF-16 chars into one long
+    static long[] trigrams(String s) {
+        if (s.length() < 3) {
+            return new long[0];
+        }
+        long[] keys = new long[s.length() - 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+        }
+        return Arrays.stream(keys).distinct().toArray();
+    }
+
+    private static int tableSize(int entries) {
+        int needed = (int) Math.ceil(entries / 0.75);
+        return needed <= 1 ? 1 : Integer.highestOneBit(needed - 1) << 1;
+    }
+
+    // Collects verified matches: first N by id, or the best N via a bounded heap
+    private static final class MatchCollector {
+        private final boolean ranked;
+        private final int limit;
+        private final List<Long> inOrder = new ArrayList<>();
+        private final PriorityQueue<Match> best;
+
+        MatchCollector(boolean ranked, int limit) {
+            this.ranked = ranked;
+            this.limit = limit;
+            this.best = ranked ? new PriorityQueue<>(limit + 1, BEST_FIRST.reversed()) : null;
+        }
+
+        // false once no further candidate can change the result
+        boolean offer(long id, String title, String needle) {
+            int at = title == null ? -1 : title.indexOf(needle);
+            if (at < 0) {
+                return true;
+            }
+            if (!ranked) {
+                inOrder.add(id);
+                return inOrder.size() < limit;
+            }
+            int score = at == 0 ? 0 : Character.isLetterOrDigit(title.charAt(at - 1)) ? 2 : 1;
+            best.offer(new Match(id, score, title.length()));
+            if (best.size() > limit) {
+                best.poll();
+            }
+            return true;
+        }
+
+        List<Long> ids() {
+            if (!ranked) {
+                return inOrder;
+            }
+            List<Match> matches = new ArrayList<>(best);
+            matches.sort(BEST_FIRST);
+            List<Long> ids = new ArrayList<>(matches.size());
+            for (Match match : matches) {
+                ids.add(match.id());
+            }
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.OptionalLong;
+
+/**
+ * Stateless Session-Tokens, signiert mit HMAC-SHA256.
+ * Format: {@code base64url(personId:ablaufEpochSekunden).base64url(signatur)}.
+ * Die Prüfung braucht nur CPU (kein BCrypt, keine Datenbank) und dauert
+ * wenige Mikrosekunden.
+ */
+@Service
+public class TokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Mac prototype;
+    private final long ttlSeconds;
+    private final Clock clock;
+
+    public TokenService(@Value("${app.auth.token.secret:}") String secret,
+                        @Value("${app.auth.token.ttl-seconds:43200}") long ttlSeconds) {
+        this(secret, ttlSeconds, Clock.systemUTC());
+    }
+
+    TokenService(String secret, long ttlSeconds, Clock clock) {
+        this.ttlSeconds = ttlSeconds;
+        this.clock = clock;
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            // No configured secret: tokens stay valid only until the next restart
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.prototype = newMac();
+    }
+
+    /**
+     * Ein ausgestelltes Token mit Ablaufzeitpunkt.
+     */
+    public record IssuedToken(String token, Instant expiresAt) {}
+
+    public IssuedToken issue(Long personId) {
+        Instant expiresAt = clock.instant().plusSeconds(ttlSeconds);
+        String payload = ENCODER.encodeToString(
+                (personId + ":" + expiresAt.getEpochSecond()).getBytes(StandardCharsets.UTF_8));
+        return new IssuedToken(payload + "." + ENCODER.encodeToString(sign(payload)), expiresAt);
+    }
+
+    /**
+     * Prüft Signatur und Ablauf eines Tokens.
+     *
+     * @return Person-ID, oder leer wenn das Token ungültig oder abgelaufen ist
+     */
+    public OptionalLong verify(String token) {
+        if (token == null) {
+            return OptionalLong.empty();
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return OptionalLong.empty();
+        }
+        String payload = token.substring(0, dot);
+        try {
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return OptionalLong.empty();
+            }
+            String decoded = new String(DECODER.decode(payload), StandardCharsets.UTF_8);
+            int colon = decoded.indexOf(':');
+            long personId = Long.parseLong(decoded.substring(0, colon));
+            long expiresAt = Long.parseLong(decoded.substring(colon + 1));
+            if (clock.instant().getEpochSecond() >= expiresAt) {
+                return OptionalLong.empty();
+            }
+            return OptionalLong.of(personId);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            // Malformed base64 or payload
+            return OptionalLong.empty();
+        }
+    }
+
+    private byte[] sign(String payload) {
+        return mac().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // Cloning the initialised prototype is much cheaper than getInstance() + init()
+    private Mac mac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            return newMac();
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 nicht verfügbar", e);
+        }
+    }
+}
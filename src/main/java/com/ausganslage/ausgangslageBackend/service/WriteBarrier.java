@@ -0,0 +1,196 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.exception.ServiceUnavailableException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Schranke zwischen Schreib-Transaktionen und dem Neuaufbau eines
+ * In-Memory-Lesemodells aus den Tabellen.
+ * Eine Transaktion meldet sich bei ihrer ersten Änderung an und erst nach
+ * dem Anwenden ihrer Deltas wieder ab ({@link #runAfterCommit}). Ein
+ * Neuaufbau schliesst die Schranke ({@link #close()}): er wartet, bis alle
+ * angemeldeten Transaktionen fertig sind, und hält neue an, bis er seinen
+ * Stand übernommen hat ({@link #publish}). Jede Änderung steckt damit
+ * entweder im gelesenen Stand oder kommt als Delta danach, nie in beidem.
+ * Beide Seiten warten begrenzt. Ein Schreiber hält beim Anmelden bereits
+ * Zeilensperren und eine Verbindung; er wartet deshalb höchstens
+ * {@code writerWaitMs} und läuft dann weiter. Der Neuaufbau gilt damit als
+ * überholt und verwirft seinen Stand, statt Änderungen doppelt zu zählen.
+ */
+final class WriteBarrier {
+
+    private final String model;
+    private final long drainTimeoutNanos;
+    private final long writerWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    // Transactions between their first change and their last delta
+    private int activeWriters;
+    private boolean reading;
+    // A writer stopped waiting while the current read was open
+    private boolean overtaken;
+
+    WriteBarrier(String model, long drainTimeoutMs, long writerWaitMs) {
+        this.model = model;
+        this.drainTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(drainTimeoutMs);
+        this.writerWaitNanos = TimeUnit.MILLISECONDS.toNanos(writerWaitMs);
+    }
+
+    /**
+     * Führt die Änderung nach dem Commit aus und meldet die Transaktion bei
+     * ihrer ersten Änderung an; abgemeldet wird nach allen
+     * {@code afterCommit}-Callbacks, auch bei einem Rollback. Ohne
+     * Transaktion läuft die Änderung sofort, ebenfalls angemeldet.
+     */
+    void runAfterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enter();
+            try {
+                change.run();
+            } finally {
+                exit();
+            }
+            return;
+        }
+        // The barrier itself marks a transaction that has already entered
+        if (!TransactionSynchronizationManager.hasResource(this)) {
+            enter();
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(WriteBarrier.this);
+                    exit();
+                }
+            });
+        }
+        AfterCommit.run(change);
+    }
+
+    /**
+     * Schliesst die Schranke: wartet, bis alle angemeldeten Transaktionen
+     * ihre Deltas angewendet haben, und hält neue an. Muss mit
+     * {@link #open()} wieder geöffnet werden.
+     *
+     * @throws ServiceUnavailableException wenn die Transaktionen nicht
+     *                                     rechtzeitig abschliessen
+     */
+    void close() throws ServiceUnavailableException {
+        boolean interrupted = false;
+        lock.lock();
+        try {
+            long deadline = System.nanoTime() + drainTimeoutNanos;
+            // One reader at a time
+            while (reading) {
+                interrupted |= await(deadline);
+            }
+            reading = true;
+            overtaken = false;
+            try {
+                while (activeWriters > 0) {
+                    interrupted |= await(deadline);
+                }
+            } catch (ServiceUnavailableException e) {
+                reading = false;
+                changed.signalAll();
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Übernimmt einen bei geschlossener Schranke gelesenen Stand oder
+     * vergleicht ihn mit dem gepflegten, sofern kein Schreiber die Schranke
+     * seit {@link #close()} überholt hat. Läuft atomar zu dieser Prüfung und
+     * darf nicht blockieren.
+     *
+     * @throws ServiceUnavailableException wenn ein Schreiber nicht länger
+     *                                     warten konnte
+     */
+    <T> T publish(Supplier<T> install) throws ServiceUnavailableException {
+        lock.lock();
+        try {
+            if (overtaken) {
+                throw new ServiceUnavailableException(model + ": Neuaufbau wurde von laufenden Änderungen überholt", 1);
+            }
+            return install.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void open() {
+        lock.lock();
+        try {
+            reading = false;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enter() {
+        boolean interrupted = false;
+        lock.lock();
+        try {
+            long deadline = System.nanoTime() + writerWaitNanos;
+            while (reading) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    // Holding row locks and a connection: let the read start over instead of waiting it out
+                    overtaken = true;
+                    break;
+                }
+                try {
+                    changed.awaitNanos(left);
+                } catch (InterruptedException e) {
+                    // Must not slip past the barrier early; restore the flag afterwards
+                    interrupted = true;
+                }
+            }
+            activeWriters++;
+        } finally {
+            lock.unlock();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void exit() {
+        lock.lock();
+        try {
+            activeWriters--;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock; true when interrupted
+    private boolean await(long deadline) throws ServiceUnavailableException {
+        long left = deadline - System.nanoTime();
+        if (left <= 0) {
+            // A held-off writer may own database locks an in-flight one needs: give way instead of deadlocking
+            throw new ServiceUnavailableException(model + ": laufende Änderungen schliessen nicht ab", 1);
+        }
+        try {
+            changed.awaitNanos(left);
+            return false;
+        } catch (InterruptedException e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.ausganslage.ausgangslageBackend;
+
+import com.ausganslage.ausgangslageBackend.model.Exam;
+import com.ausganslage.ausgangslageBackend.model.Person;
+import com.ausganslage.ausgangslageBackend.repository.EstimateRepository;
+import com.ausganslage.ausgangslageBackend.repository.ExamRepository;
+import com.ausganslage.ausgangslageBackend.repository.PersonRepository;
+import com.ausganslage.ausgangslageBackend.repository.ResultRepository;
+import com.ausganslage.ausgangslageBackend.repository.TodoRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Legt Personen und Exams für @SpringBootTest-Tests an und löscht sie samt
+ * abhängigen Zeilen wieder ({@link #cleanup()}, aus {@code @AfterEach}).
+ * Gelöscht wird über die Repositories statt per Rollback, damit die
+ * Entity-Listener auch die In-Memory-Modelle (Rangliste, Notenstatistik,
+ * Kalibrierung) wieder zurückführen.
+ */
+@Component
+public class TestData {
+
+    // Never a valid BCrypt hash, so these persons cannot log in
+    private static final String PASSWORD_HASH = "$2a$10$notARealHashButLongEnoughToBeNoticed";
+
+    private final PersonRepository personRepository;
+    private final ExamRepository examRepository;
+    private final ResultRepository resultRepository;
+    private final EstimateRepository estimateRepository;
+    private final TodoRepository todoRepository;
+
+    // Created by the running test; tests create their fixtures on one thread
+    private final List<Long> personIds = new ArrayList<>();
+    private final List<Long> examIds = new ArrayList<>();
+
+    public TestData(PersonRepository personRepository, ExamRepository examRepository,
+                    ResultRepository resultRepository, EstimateRepository estimateRepository,
+                    TodoRepository todoRepository) {
+        this.personRepository = personRepository;
+        this.examRepository = examRepository;
+        this.resultRepository = resultRepository;
+        this.estimateRepository = estimateRepository;
+        this.todoRepository = todoRepository;
+    }
+
+    /**
+     * Speichert eine Person mit eindeutiger E-Mail-Adresse.
+     */
+    public Person person(String name) {
+        Person person = new Person();
+        person.setName(name);
+        person.setEmail("test-" + UUID.randomUUID() + "@example.com");
+        person.setPasswordHash(PASSWORD_HASH);
+        person = personRepository.save(person);
+        personIds.add(person.getId());
+        return person;
+    }
+
+    public Exam exam(String title, LocalDate date) {
+        Exam exam = new Exam();
+        exam.setTitle(title);
+        exam.setDate(date);
+        exam = examRepository.save(exam);
+        examIds.add(exam.getId());
+        return exam;
+    }
+
+    /**
+     * Löscht alles, was seit dem letzten Aufruf angelegt wurde: Exams mit
+     * ihren Results und Schätzungen, dann Todos, übrige Results und
+     * Schätzungen der Personen und die Personen selbst.
+     */
+    public void cleanup() {
+        // Cascades to results and estimates, one listener call each
+        examIds.forEach(examRepository::deleteById);
+        for (Long personId : personIds) {
+            todoRepository.deleteAll(todoRepository.findByPersonId(personId));
+            resultRepository.deleteAll(resultRepository.findByPersonId(personId));
+            estimateRepository.deleteAll(estimateRepository.findByPersonId(personId));
+            personRepository.deleteById(personId);
+        }
+        examIds.clear();
+        personIds.clear();
+    }
+}
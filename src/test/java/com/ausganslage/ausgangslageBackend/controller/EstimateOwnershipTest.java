@@ -0,0 +1,42 @@
+package com.ausganslage.ausgangslageBackend.controller;
+
+import com.ausganslage.ausgangslageBackend.service.TokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Mit gültigem Token darf eine Schätzung nur für die angemeldete Person
+ * abgegeben werden; eine fremde personId im Body ist verboten (403), nicht
+ * unauthentifiziert (401).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class EstimateOwnershipTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Test
+    void estimateForAnotherPersonIsForbidden() throws Exception {
+        String token = tokenService.issue(1L).token();
+        // Rejected before the exam is looked up, so no rows are needed
+        mockMvc.perform(post("/api/exams/1/estimates")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"personId\":2,\"value\":3}"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.message").value("Schätzungen können nur für die angemeldete Person abgegeben werden"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.ausganslage.ausgangslageBackend.controller;
+
+import com.ausganslage.ausgangslageBackend.TestData;
+import com.ausganslage.ausgangslageBackend.model.Exam;
+import com.ausganslage.ausgangslageBackend.model.Result;
+import com.ausganslage.ausgangslageBackend.repository.ResultRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Grosse Antworten müssen über den echten Tomcat gzip-komprimiert
+ * ankommen, auch mit ETag; ein Revalidieren mit dem ETag ergibt 304.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ResponseCompressionTest {
+
+    private static final int PERSONS = 150;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ResultRepository resultRepository;
+
+    @AfterEach
+    void cleanup() {
+        testData.cleanup();
+    }
+
+    @Test
+    void leaderboardIsGzippedAndRevalidates() throws Exception {
+        Exam exam = testData.exam("Compression", LocalDate.now().minusDays(1));
+        List<Result> results = new ArrayList<>();
+        for (int i = 0; i < PERSONS; i++) {
+            Result result = new Result();
+            result.setExam(exam);
+            result.setPerson(testData.person("Compression " + i));
+            result.setResult(1 + i % 6);
+            results.add(result);
+        }
+        resultRepository.saveAll(results);
+
+        // java.net.http does not decode gzip itself, so the raw encoding is visible
+        HttpClient http = HttpClient.newHttpClient();
+        URI uri = URI.create("http://localhost:" + port + "/api/leaderboard");
+        HttpResponse<byte[]> response = http.send(HttpRequest.newBuilder(uri)
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        String etag = response.headers().firstValue("ETag").orElseThrow();
+        assertThat(etag).startsWith("W/\"");
+        assertThat(response.headers().allValues("Vary")).anyMatch(vary -> vary.contains("Accept"));
+        try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            assertThat(new String(body.readAllBytes(), StandardCharsets.UTF_8)).contains("Compression 0");
+        }
+
+        HttpResponse<byte[]> revalidated = http.send(HttpRequest.newBuilder(uri)
+                .header("Accept-Encoding", "gzip")
+                .header("If-None-Match", etag)
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(revalidated.statusCode()).isEqualTo(304);
+    }
+}
@@ -0,0 +1,51 @@
+package com.ausganslage.ausgangslageBackend.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Ein abgelaufenes oder ungültiges Token darf die Anmeldung nicht
+ * blockieren; wo es abgewiesen wird, muss die 401-Antwort die CORS-Header
+ * tragen, damit Browser sie lesen können.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class StaleTokenTest {
+
+    private static final String ORIGIN = "http://localhost:5173";
+    private static final String STALE = "Bearer bm90LWEtdG9rZW4.c2lnbmF0dXJl";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void loginIgnoresAStaleToken() throws Exception {
+        // Missing password is a 400 from the controller, not a 401 from the token check
+        mockMvc.perform(post("/api/auth/login")
+                        .header(HttpHeaders.AUTHORIZATION, STALE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"stale@example.com\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectedTokenCarriesCorsHeaders() throws Exception {
+        mockMvc.perform(get("/api/todos")
+                        .header(HttpHeaders.ORIGIN, ORIGIN)
+                        .header(HttpHeaders.AUTHORIZATION, STALE))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, ORIGIN))
+                .andExpect(jsonPath("$.message").value("Token ungültig oder abgelaufen"));
+    }
+}
@@ -0,0 +1,114 @@
+package com.ausganslage.ausgangslageBackend.controller;
+
+import com.ausganslage.ausgangslageBackend.TestData;
+import com.ausganslage.ausgangslageBackend.model.Estimate;
+import com.ausganslage.ausgangslageBackend.model.EstimateSlot;
+import com.ausganslage.ausgangslageBackend.model.Exam;
+import com.ausganslage.ausgangslageBackend.model.Person;
+import com.ausganslage.ausgangslageBackend.model.Result;
+import com.ausganslage.ausgangslageBackend.repository.EstimateRepository;
+import com.ausganslage.ausgangslageBackend.repository.ResultRepository;
+import com.ausganslage.ausgangslageBackend.service.CacheStatsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Die Lese-Endpoints für Results, Schätzungen und Rangliste müssen mit einer
+ * festen Anzahl SQL-Statements auskommen, unabhängig von der Anzahl Zeilen
+ * (kein N+1), und dürfen keine Passwort-Hashes ausliefern.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class StatementCountTest {
+
+    private static final int PERSONS = 30;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ResultRepository resultRepository;
+
+    @Autowired
+    private EstimateRepository estimateRepository;
+
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
+    private Long examId;
+
+    @BeforeEach
+    void seed() {
+        Exam exam = testData.exam("Statements", LocalDate.now().minusDays(1));
+        examId = exam.getId();
+
+        for (int i = 0; i < PERSONS; i++) {
+            Person person = testData.person("Statement " + i);
+
+            Result result = new Result();
+            result.setExam(exam);
+            result.setPerson(person);
+            result.setResult(1 + i % 6);
+            resultRepository.save(result);
+
+            Estimate estimate = new Estimate();
+            estimate.setExam(exam);
+            estimate.setPerson(person);
+            estimate.setSlot(EstimateSlot.AFTER_EXAM);
+            estimate.setValue(1 + (i + 1) % 6);
+            estimateRepository.save(estimate);
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        testData.cleanup();
+    }
+
+    @Test
+    void resultsByExamRunOneStatement() throws Exception {
+        assertStatements("/api/exams/" + examId + "/results", 1);
+    }
+
+    @Test
+    void estimatesByExamRunOneStatement() throws Exception {
+        assertStatements("/api/exams/" + examId + "/estimates", 1);
+    }
+
+    @Test
+    void leaderboardIsServedFromMemory() throws Exception {
+        assertStatements("/api/leaderboard", 0);
+    }
+
+    @Test
+    void examStatsNeedAtMostTheExamLookup() throws Exception {
+        assertStatements("/api/exams/" + examId + "/stats", 1);
+    }
+
+    private void assertStatements(String path, long max) throws Exception {
+        cacheStatsService.reset();
+        mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString("passwordHash"))))
+                .andExpect(content().string(not(containsString("$2a$"))));
+        long statements = cacheStatsService.stats().preparedStatements();
+        assertThat(statements).as("SQL statements for GET " + path + " with " + PERSONS + " rows").isLessThanOrEqualTo(max);
+    }
+}
@@ -0,0 +1,125 @@
+package com.ausganslage.ausgangslageBackend.logging;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Viele Produzenten schreiben gleichzeitig ins Event-Log: jede Zeile muss
+ * gültiges JSON sein, kein Event darf verloren gehen, solange der Puffer
+ * reicht, und personenbezogene Felder erscheinen nur als Hash.
+ */
+class EventLoggerTest {
+
+    private static final int PRODUCERS = 8;
+    private static final int EVENTS_PER_PRODUCER = 2_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ExecutorService producers = Executors.newFixedThreadPool(PRODUCERS);
+    private EventLogger logger;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        producers.shutdownNow();
+        if (logger != null) {
+            logger.stop();
+        }
+    }
+
+    @Test
+    void writesEveryEventAsJsonLineUnderConcurrency() throws Exception {
+        logger = start(new EventLogProperties(true, 1 << 15, 256, 5, true, Map.of()));
+        CountDownLatch go = new CountDownLatch(1);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            futures.add(producers.submit(() -> {
+                go.await();
+                for (int i = 0; i < EVENTS_PER_PRODUCER; i++) {
+                    logger.event("auth.login.failed")
+                            .field("producer", producer)
+                            .field("seq", i)
+                            .pii("email", "user" + i + "@example.com")
+                            .emit();
+                }
+                return null;
+            }));
+        }
+        go.countDown();
+        for (Future<?> f : futures) {
+            f.get(30, TimeUnit.SECONDS);
+        }
+        logger.stop();
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(logger.dropped()).isZero();
+        assertThat(lines).hasSize(PRODUCERS * EVENTS_PER_PRODUCER);
+        assertThat(logger.written()).isEqualTo(PRODUCERS * EVENTS_PER_PRODUCER);
+
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("type").asText()).isEqualTo("auth.login.failed");
+        assertThat(first.get("email").asText()).startsWith("hmac:").doesNotContain("@");
+        for (String line : lines) {
+            assertThat(objectMapper.readTree(line).has("seq")).isTrue();
+        }
+    }
+
+    @Test
+    void appliesSampleRatePerType() throws Exception {
+        logger = start(new EventLogProperties(true, 1024, 256, 5, false,
+                Map.of("*", 0.0, "exam.created", 1.0)));
+
+        for (int i = 0; i < 100; i++) {
+            logger.event("auth.login.finished").field("durationMicros", i).emit();
+        }
+        logger.event("exam.created").field("examId", 7).pii("email", "a@b.ch").emit();
+        logger.stop();
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(1);
+        JsonNode node = objectMapper.readTree(lines[0]);
+        assertThat(node.get("examId").asInt()).isEqualTo(7);
+        assertThat(node.get("email").asText()).isEqualTo("a@b.ch");
+    }
+
+    @Test
+    void redactsWithAKeyedHash() throws Exception {
+        EventLogProperties properties = new EventLogProperties(true, 1024, 256, 5, true, Map.of());
+
+        // Same key, same hash for correlation; another key gives another hash
+        String first = redacted(properties, "secret-a");
+        assertThat(first).startsWith("hmac:").isEqualTo(redacted(properties, "secret-a"));
+        assertThat(redacted(properties, "secret-b")).isNotEqualTo(first);
+    }
+
+    private String redacted(EventLogProperties properties, String secret) throws Exception {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        EventLogger eventLogger = new EventLogger(properties, objectMapper, secret, sink);
+        eventLogger.start();
+        eventLogger.event("auth.login.failed").pii("email", "anna@example.com").emit();
+        eventLogger.stop();
+        return objectMapper.readTree(sink.toString(StandardCharsets.UTF_8).trim()).get("email").asText();
+    }
+
+    private EventLogger start(EventLogProperties properties) {
+        EventLogger eventLogger = new EventLogger(properties, objectMapper, "", out);
+        eventLogger.start();
+        return eventLogger;
+    }
+}
@@ -0,0 +1,303 @@
+package com.ausganslage.ausgangslageBackend.perf;
+
+import com.ausganslage.ausgangslageBackend.AusgangslageBackendApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-End-Last über HTTP gegen die ganze Anwendung (Tomcat, Filter,
+ * Controller, JPA, H2) mit dem Verhalten einer Schulklasse: jeder virtuelle
+ * Schüler wählt gemäss Mix einen Aufruf, wartet auf die Antwort und denkt
+ * dann eine zufällige Zeit nach. Die Latenz wird pro Endpoint in einem
+ * HdrHistogram erfasst.
+ *
+ * <p>Konfiguration über System-Properties ({@code mvn -Pperf test -D...}):
+ * <ul>
+ *   <li>{@code load.users} (150), {@code load.seconds} (60), {@code load.warmup-seconds} (10),
+ *       {@code load.think-ms} (mittlere Denkzeit, 500)</li>
+ *   <li>{@code load.mix}: Gewichte, z.B. {@code login:5,exams:25,estimate:10,leaderboard:35,todos:20,todo-create:5}</li>
+ *   <li>{@code load.dataset}: Datenmenge im Hintergrund, {@code demo} (Standard), {@code small} oder {@code large}</li>
+ *   <li>{@code load.tag}: Name des Berichts unter {@code target/load/<tag>.json}</li>
+ *   <li>{@code load.baseline}: früherer Bericht; Endpoints, deren p99 um mehr als
+ *       {@code load.regression-threshold} (0.2 = 20%) schlechter ist, werden markiert
+ *       und lassen mit {@code load.fail-on-regression=true} den Lauf scheitern</li>
+ * </ul>
+ */
+@Tag("perf")
+class ClassroomLoadTest {
+
+    private static final String PASSWORD = "password123";
+    private static final int EXAMS = 12;
+    // 1 µs to 60 s at three significant digits
+    private static final long MAX_LATENCY_MICROS = 60_000_000L;
+
+    private final ObjectMapper json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final int users = Integer.getInteger("load.users", 150);
+    private final Duration warmup = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 10));
+    private final Duration measure = Duration.ofSeconds(Long.getLong("load.seconds", 60));
+    private final long thinkMillis = Long.getLong("load.think-ms", 500);
+    private final Map<String, Integer> mix =
+            parseMix(System.getProperty("load.mix", "login:5,exams:25,estimate:10,leaderboard:35,todos:20,todo-create:5"));
+
+    record Student(long id, String email) {}
+
+    record EndpointReport(String endpoint, long requests, long errors, long rejected,
+                          double p50Ms, double p99Ms, double p999Ms, double maxMs, double throughputRps) {}
+
+    record Report(String tag, int users, long seconds, long thinkMillis, Map<String, Integer> mix,
+                  List<EndpointReport> endpoints) {}
+
+    private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> errors = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> rejected = new LinkedHashMap<>();
+
+    @Test
+    void classroomLoad() throws Exception {
+        for (String endpoint : mix.keySet()) {
+            histograms.put(endpoint, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            errors.put(endpoint, new AtomicLong());
+            rejected.put(endpoint, new AtomicLong());
+        }
+
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(AusgangslageBackendApplication.class)
+                     .properties("server.port=0",
+                             "spring.datasource.url=jdbc:h2:mem:load-test",
+                             "spring.jmx.enabled=false",
+                             "spring.h2.console.enabled=false",
+                             "spring.profiles.active=" + datasetProfile())
+                     .run();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(executor)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .build()) {
+
+            String base = "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+            List<Student> students = registerStudents(http, base);
+            List<Long> examIds = createExams(http, base);
+
+            runPhase(executor, http, base, students, examIds, warmup);
+            histograms.values().forEach(Histogram::reset);
+            errors.values().forEach(counter -> counter.set(0));
+            rejected.values().forEach(counter -> counter.set(0));
+            runPhase(executor, http, base, students, examIds, measure);
+        }
+
+        Report report = report();
+        String tag = System.getProperty("load.tag", "local");
+        Path out = Path.of("target", "load", tag + ".json");
+        Files.createDirectories(out.getParent());
+        json.writeValue(out.toFile(), report);
+        print(report, System.out);
+
+        String baseline = System.getProperty("load.baseline");
+        if (baseline != null) {
+            List<String> regressions = compare(report, json.readValue(Path.of(baseline).toFile(), Report.class));
+            if (Boolean.getBoolean("load.fail-on-regression")) {
+                assertThat(regressions).as("p99 regressions against " + baseline).isEmpty();
+            }
+        }
+    }
+
+    private void runPhase(ExecutorService executor, HttpClient http, String base, List<Student> students,
+                          List<Long> examIds, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<?>> running = new ArrayList<>(users);
+        for (int u = 0; u < users; u++) {
+            Student student = students.get(u % students.size());
+            running.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                // Stagger the start so the class does not log in at the same instant
+                Thread.sleep(random.nextLong(Math.max(1, thinkMillis)));
+                while (System.nanoTime() < deadline) {
+                    String endpoint = pick(random);
+                    HttpRequest request = request(endpoint, base, student, examIds, random);
+                    long start = System.nanoTime();
+                    try {
+                        int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        long micros = (System.nanoTime() - start) / 1_000;
+                        histograms.get(endpoint).recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+                        if (status >= 500) {
+                            errors.get(endpoint).incrementAndGet();
+                        } else if (status >= 400) {
+                            // e.g. 409 for a second estimate in a taken slot: expected, but worth counting
+                            rejected.get(endpoint).incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        errors.get(endpoint).incrementAndGet();
+                    }
+                    // Exponential think time, mean load.think-ms
+                    Thread.sleep((long) (-thinkMillis * Math.log(1 - random.nextDouble())));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : running) {
+            f.get();
+        }
+    }
+
+    private HttpRequest request(String endpoint, String base, Student student, List<Long> examIds,
+                                ThreadLocalRandom random) {
+        Long examId = examIds.get(random.nextInt(examIds.size()));
+        return switch (endpoint) {
+            case "login" -> post(base + "/api/auth/login",
+                    Map.of("email", student.email(), "password", PASSWORD));
+            case "exams" -> get(base + "/api/exams");
+            case "estimate" -> post(base + "/api/exams/" + examId + "/estimates",
+                    Map.of("personId", student.id(), "value", 1 + random.nextInt(6)));
+            case "leaderboard" -> get(base + "/api/leaderboard");
+            case "todos" -> get(base + "/api/todos/person/" + student.id());
+            case "todo-create" -> post(base + "/api/todos/person/" + student.id(),
+                    Map.of("title", "Lernen für Exam " + examId, "completed", false));
+            default -> throw new IllegalArgumentException("Unknown endpoint in load.mix: " + endpoint);
+        };
+    }
+
+    private List<Student> registerStudents(HttpClient http, String base) throws Exception {
+        List<Student> students = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            String email = "student" + i + "@load.example";
+            HttpResponse<String> response = http.send(post(base + "/api/auth/register",
+                    Map.of("name", "Student " + i, "email", email, "password", PASSWORD)),
+                    HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).isEqualTo(201);
+            students.add(new Student(json.readTree(response.body()).get("id").asLong(), email));
+        }
+        return students;
+    }
+
+    private List<Long> createExams(HttpClient http, String base) throws Exception {
+        List<Long> ids = new ArrayList<>(EXAMS);
+        for (int i = 0; i < EXAMS; i++) {
+            HttpResponse<String> response = http.send(post(base + "/api/exams",
+                    Map.of("title", "Lastprüfung " + i, "date", LocalDate.now().plusDays(7 + i).toString())),
+                    HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).isEqualTo(201);
+            JsonNode exam = json.readTree(response.body());
+            ids.add(exam.get("id").asLong());
+        }
+        return ids;
+    }
+
+    private Report report() {
+        List<EndpointReport> endpoints = new ArrayList<>();
+        histograms.forEach((endpoint, histogram) -> endpoints.add(new EndpointReport(endpoint,
+                histogram.getTotalCount(), errors.get(endpoint).get(), rejected.get(endpoint).get(),
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0,
+                histogram.getTotalCount() / (double) measure.toSeconds())));
+        return new Report(System.getProperty("load.tag", "local"), users, measure.toSeconds(), thinkMillis,
+                mix, endpoints);
+    }
+
+    private static void print(Report report, PrintStream out) {
+        out.printf("%-12s %9s %7s %8s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "rejected", "rps", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (EndpointReport e : report.endpoints()) {
+            out.printf("%-12s %9d %7d %8d %9.1f %9.2f %9.2f %9.2f %9.2f%n", e.endpoint(), e.requests(), e.errors(),
+                    e.rejected(), e.throughputRps(), e.p50Ms(), e.p99Ms(), e.p999Ms(), e.maxMs());
+        }
+    }
+
+    // Prints p99 deltas per endpoint and returns the ones beyond the threshold
+    private static List<String> compare(Report current, Report baseline) {
+        double threshold = Double.parseDouble(System.getProperty("load.regression-threshold", "0.2"));
+        Map<String, EndpointReport> before = new LinkedHashMap<>();
+        baseline.endpoints().forEach(e -> before.put(e.endpoint(), e));
+
+        List<String> regressions = new ArrayList<>();
+        System.out.printf("%nagainst baseline '%s' (threshold +%.0f%% p99)%n", baseline.tag(), threshold * 100);
+        for (EndpointReport now : current.endpoints()) {
+            EndpointReport then = before.get(now.endpoint());
+            if (then == null || then.p99Ms() == 0) {
+                continue;
+            }
+            double change = (now.p99Ms() - then.p99Ms()) / then.p99Ms();
+            boolean regressed = change > threshold;
+            System.out.printf("%-12s p99 %8.2f -> %8.2f ms (%+6.1f%%)%s%n", now.endpoint(), then.p99Ms(),
+                    now.p99Ms(), change * 100, regressed ? "  REGRESSION" : "");
+            if (regressed) {
+                regressions.add(now.endpoint());
+            }
+        }
+        return regressions;
+    }
+
+    private String pick(ThreadLocalRandom random) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = random.nextInt(total);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("empty mix");
+    }
+
+    private HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).timeout(Duration.ofSeconds(60)).GET().build();
+    }
+
+    private HttpRequest post(String uri, Map<String, ?> body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(uri))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // load.dataset=small|large selects the dataset-* profile; the generated accounts stay in the background
+    private static String datasetProfile() {
+        String dataset = System.getProperty("load.dataset", "demo");
+        return dataset.equals("demo") ? "default" : "dataset-" + dataset;
+    }
+
+    private static Map<String, Integer> parseMix(String spec) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split(":");
+            weights.put(kv[0].trim(), Integer.parseInt(kv[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,154 @@
+package com.ausganslage.ausgangslageBackend.perf;
+
+import com.ausganslage.ausgangslageBackend.AusgangslageBackendApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Vergleicht Tomcat auf Plattform-Threads mit Tomcat auf virtuellen Threads
+ * ({@code spring.threads.virtual.enabled}) bei 1k und 10k gleichzeitigen
+ * Verbindungen gegen {@code /api/exams} und {@code /api/leaderboard}.
+ * Jede Verbindung ist ein virtueller Client-Thread, der bis zum Ablauf der
+ * Messdauer Anfragen nacheinander sendet (geschlossenes Lastmodell).
+ * Läuft nur mit {@code mvn -Pperf test}; Ergebnisse landen zusätzlich in
+ * {@code target/perf/thread-models.csv}. Für 10k Verbindungen muss das
+ * Limit offener Dateien ({@code ulimit -n}) entsprechend hoch sein.
+ * Client und Server teilen sich die JVM, die Zahlen taugen also für den
+ * Vergleich der beiden Modi, nicht als absolute Kapazität.
+ */
+@Tag("perf")
+class ThreadModelBenchmark {
+
+    private static final List<String> PATHS = List.of("/api/exams", "/api/leaderboard");
+    private static final int[] CONNECTIONS = Arrays.stream(System.getProperty("perf.connections", "1000,10000").split(","))
+            .map(String::trim).mapToInt(Integer::parseInt).toArray();
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("perf.warmup-seconds", 5));
+    private static final Duration MEASURE = Duration.ofSeconds(Long.getLong("perf.seconds", 15));
+
+    private record Run(String mode, int connections, String path, long requests, long errors,
+                       double seconds, long p50Micros, long p99Micros, long maxMicros) {
+
+        String csv() {
+            return String.format("%s,%d,%s,%d,%d,%.1f,%.2f,%.2f,%.2f", mode, connections, path, requests, errors,
+                    requests / seconds, p50Micros / 1000.0, p99Micros / 1000.0, maxMicros / 1000.0);
+        }
+    }
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        List<Run> runs = new ArrayList<>();
+        for (boolean virtual : new boolean[] {false, true}) {
+            String mode = virtual ? "virtual" : "platform";
+            try (ConfigurableApplicationContext app = start(mode, virtual)) {
+                int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+                for (String path : PATHS) {
+                    for (int connections : CONNECTIONS) {
+                        drive(mode, port, path, connections, WARMUP);
+                        runs.add(drive(mode, port, path, connections, MEASURE));
+                    }
+                }
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add("mode,connections,path,requests,errors,throughput_rps,p50_ms,p99_ms,max_ms");
+        runs.forEach(run -> lines.add(run.csv()));
+        lines.forEach(System.out::println);
+        write(lines);
+    }
+
+    private static ConfigurableApplicationContext start(String mode, boolean virtual) {
+        return new SpringApplicationBuilder(AusgangslageBackendApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "spring.datasource.url=jdbc:h2:mem:perf-" + mode,
+                        "spring.jmx.enabled=false",
+                        "spring.h2.console.enabled=false")
+                .run();
+    }
+
+    private static Run drive(String mode, int port, String path, int connections, Duration duration)
+            throws Exception {
+        URI uri = URI.create("http://localhost:" + port + path);
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> clients = new ArrayList<>(connections);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(executor)
+                     .connectTimeout(Duration.ofSeconds(30))
+                     .build()) {
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+            long begin = System.nanoTime();
+            long deadline = begin + duration.toNanos();
+            for (int i = 0; i < connections; i++) {
+                clients.add(executor.submit(() -> {
+                    long[] latencies = new long[256];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = (System.nanoTime() - start) / 1_000;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+
+            List<long[]> perClient = new ArrayList<>(connections);
+            for (Future<long[]> f : clients) {
+                perClient.add(f.get());
+            }
+            double seconds = (System.nanoTime() - begin) / 1e9;
+
+            long[] all = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            return new Run(mode, connections, path, all.length, errors.get(), seconds,
+                    percentile(all, 0.50), percentile(all, 0.99), all.length == 0 ? 0 : all[all.length - 1]);
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static void write(List<String> lines) throws IOException {
+        Path out = Path.of("target", "perf", "thread-models.csv");
+        Files.createDirectories(out.getParent());
+        Files.write(out, lines);
+    }
+}
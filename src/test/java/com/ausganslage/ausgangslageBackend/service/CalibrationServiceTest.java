@@ -0,0 +1,82 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.dto.PersonCalibration;
+import com.ausganslage.ausgangslageBackend.model.EstimateSlot;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Die inkrementell gepflegte Kalibrierung muss jeder Änderung folgen und
+ * dieselben Ränge liefern wie ein Sortieren aller Personen.
+ */
+class CalibrationServiceTest {
+
+    private final CalibrationService calibration = new CalibrationService(null, null, null, null, 0, 0);
+
+    @Test
+    void calibrationFollowsEveryChangeAcrossExams() {
+        // Person 1: before off by 2, after exact, in two exams; person 2: off by 1 after one exam
+        for (long exam = 1; exam <= 2; exam++) {
+            calibration.applyEstimate(exam, 1L, EstimateSlot.BEFORE_EXAM, 5, 1);
+            calibration.applyResult(exam, 1L, 3, 1);
+            calibration.applyEstimate(exam, 1L, EstimateSlot.AFTER_EXAM, 3, 1);
+        }
+        calibration.applyResult(1L, 2L, 4, 1);
+        calibration.applyEstimate(1L, 2L, EstimateSlot.AFTER_EXAM, 3, 1);
+
+        PersonCalibration first = calibration.getCalibration(1L);
+        assertThat(first.slots().get(EstimateSlot.BEFORE_EXAM.ordinal()).meanAbsoluteError()).isEqualTo(2.0);
+        assertThat(first.slots().get(EstimateSlot.BEFORE_EXAM.ordinal()).bias()).isEqualTo(2.0);
+        assertThat(first.slots().get(EstimateSlot.AFTER_EXAM.ordinal()).meanAbsoluteError()).isEqualTo(0.0);
+        assertThat(first.meanImprovement()).isEqualTo(2.0);
+        assertThat(first.exams()).extracting(PersonCalibration.ExamCalibration::improvement).containsExactly(2.0, 2.0);
+        // Person 1: 4 / 4 pairs = 1.0, person 2: 1 / 1 pair = 1.0, tie broken by more pairs
+        assertThat(first.rank()).isEqualTo(1);
+        assertThat(calibration.getCalibration(2L).rank()).isEqualTo(1);
+
+        // Removing the grade of exam 2 takes both of its pairs out again
+        calibration.applyResult(2L, 1L, 3, -1);
+        PersonCalibration updated = calibration.getCalibration(1L);
+        assertThat(updated.improvementPairs()).isEqualTo(1);
+        assertThat(updated.slots().get(EstimateSlot.AFTER_EXAM.ordinal()).pairs()).isEqualTo(1);
+        assertThat(updated.exams()).hasSize(2);
+        assertThat(updated.exams().get(1).grade()).isNull();
+        assertThat(calibration.getCalibration(3L).rank()).isNull();
+    }
+
+    @Test
+    void maintainedRanksMatchSortingAllPersons() {
+        Random random = new Random(7);
+        // personId -> {absolute errors, pairs}, one AFTER_EXAM estimate per exam
+        Map<Long, long[]> expected = new HashMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            long person = 1 + random.nextInt(200);
+            long exam = 1 + random.nextInt(5);
+            if (calibration.getCalibration(person).exams().stream().anyMatch(e -> e.examId() == exam)) {
+                continue;
+            }
+            int grade = 1 + random.nextInt(6);
+            int estimate = 1 + random.nextInt(6);
+            calibration.applyResult(exam, person, grade, 1);
+            calibration.applyEstimate(exam, person, EstimateSlot.AFTER_EXAM, estimate, 1);
+            long[] totals = expected.computeIfAbsent(person, p -> new long[2]);
+            totals[0] += Math.abs(estimate - grade);
+            totals[1]++;
+        }
+
+        for (Map.Entry<Long, long[]> person : expected.entrySet()) {
+            long[] own = person.getValue();
+            long better = expected.values().stream()
+                    .filter(other -> other[0] * own[1] < own[0] * other[1])
+                    .count();
+            PersonCalibration ranked = calibration.getCalibration(person.getKey());
+            assertThat(ranked.rank()).as("rank of person " + person.getKey()).isEqualTo((int) better + 1);
+            assertThat(ranked.rankedPersons()).isEqualTo(expected.size());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.TestData;
+import com.ausganslage.ausgangslageBackend.exception.DuplicateDataException;
+import com.ausganslage.ausgangslageBackend.model.Estimate;
+import com.ausganslage.ausgangslageBackend.model.EstimateSlot;
+import com.ausganslage.ausgangslageBackend.repository.EstimateRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Viele Threads reichen gleichzeitig Schätzungen für dieselben Personen ein:
+ * pro Person und Platz darf genau eine gespeichert werden, alle anderen
+ * Versuche enden mit 409 statt mit einer dritten Schätzung.
+ */
+@SpringBootTest
+class EstimateAdmissionStressTest {
+
+    private static final int THREADS = 16;
+    private static final int PERSONS = 25;
+    private static final int ROUNDS = 4;
+
+    @Autowired
+    private EstimateService estimateService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EstimateRepository estimateRepository;
+
+    @AfterEach
+    void cleanup() {
+        testData.cleanup();
+    }
+
+    @Test
+    void concurrentSubmissionsAdmitExactlyOneEstimatePerSlot() throws Exception {
+        Long examId = testData.exam("Stresstest", LocalDate.now().plusDays(7)).getId();
+
+        List<Long> personIds = new ArrayList<>();
+        for (int i = 0; i < PERSONS; i++) {
+            personIds.add(testData.person("Stress " + i).getId());
+        }
+
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int round = 0; round < ROUNDS; round++) {
+                        for (int i = 0; i < PERSONS; i++) {
+                            // Different starting points so threads collide on every pair
+                            Long personId = personIds.get((i + offset) % PERSONS);
+                            try {
+                                estimateService.submitEstimate(examId, personId, 3);
+                                admitted.incrementAndGet();
+                            } catch (DuplicateDataException e) {
+                                conflicts.incrementAndGet();
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<Estimate> stored = estimateRepository.findByExamId(examId);
+        assertThat(admitted.get()).isEqualTo(PERSONS);
+        assertThat(conflicts.get()).isEqualTo(THREADS * ROUNDS * PERSONS - PERSONS);
+        assertThat(stored).hasSize(PERSONS);
+        assertThat(stored).allMatch(e -> e.getSlot() == EstimateSlot.BEFORE_EXAM);
+    }
+}
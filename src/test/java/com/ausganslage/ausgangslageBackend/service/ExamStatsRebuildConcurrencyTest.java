@@ -0,0 +1,114 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.TestData;
+import com.ausganslage.ausgangslageBackend.dto.ExamStats;
+import com.ausganslage.ausgangslageBackend.dto.GradeCount;
+import com.ausganslage.ausgangslageBackend.exception.ServiceUnavailableException;
+import com.ausganslage.ausgangslageBackend.model.Exam;
+import com.ausganslage.ausgangslageBackend.model.Person;
+import com.ausganslage.ausgangslageBackend.model.Result;
+import com.ausganslage.ausgangslageBackend.repository.ResultRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Neuaufbauten laufen, während andere Threads Noten speichern und löschen:
+ * keine Änderung darf sowohl im gelesenen Stand als auch als Delta gezählt
+ * werden, die Zähler müssen danach exakt mit den Tabellen übereinstimmen.
+ */
+@SpringBootTest
+class ExamStatsRebuildConcurrencyTest {
+
+    private static final int WRITERS = 8;
+    private static final int PERSONS = 40;
+    private static final int REBUILDS = 20;
+
+    @Autowired
+    private ExamStatsService examStatsService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ResultRepository resultRepository;
+
+    @AfterEach
+    void cleanup() {
+        testData.cleanup();
+    }
+
+    @Test
+    void rebuildsDuringWritesNeverCountAChangeTwice() throws Exception {
+        Exam saved = testData.exam("Rebuild", LocalDate.now().minusDays(1));
+
+        List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < PERSONS; i++) {
+            persons.add(testData.person("Rebuild " + i));
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                int writer = w;
+                writers.add(executor.submit(() -> {
+                    int i = 0;
+                    while (running.get()) {
+                        Result result = new Result();
+                        result.setExam(saved);
+                        result.setPerson(persons.get((writer + i * WRITERS) % PERSONS));
+                        result.setResult(1 + i % 6);
+                        Result stored = resultRepository.save(result);
+                        // Every third grade is taken back again
+                        if (i % 3 == 0) {
+                            resultRepository.deleteById(stored.getId());
+                        }
+                        i++;
+                    }
+                    return null;
+                }));
+            }
+
+            int published = 0;
+            for (int r = 0; r < REBUILDS; r++) {
+                try {
+                    examStatsService.rebuild();
+                    published++;
+                } catch (ServiceUnavailableException e) {
+                    // Overtaken by a writer that stopped waiting: the old counters stay, kept up by deltas
+                }
+                Thread.sleep(10);
+            }
+            running.set(false);
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+            assertThat(published).as("rebuilds that replaced the counters").isPositive();
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+
+        ExamStatsService.VerificationReport report = examStatsService.verify(false);
+        assertThat(report.drift()).as("counters drifted from the tables").isEmpty();
+        ExamStats stats = examStatsService.getStats(saved.getId());
+        assertThat(stats.results()).isEqualTo(resultRepository.countGrades().stream()
+                .filter(row -> row.examId().equals(saved.getId()))
+                .mapToLong(GradeCount::count)
+                .sum());
+    }
+}
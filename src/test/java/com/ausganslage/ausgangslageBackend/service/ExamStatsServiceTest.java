@@ -0,0 +1,84 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.dto.ExamStats;
+import com.ausganslage.ausgangslageBackend.model.EstimateSlot;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Die inkrementell gepflegten Zähler müssen dieselben Kennzahlen liefern
+ * wie eine Berechnung über alle Noten, auch wenn Noten und Schätzungen in
+ * beliebiger Reihenfolge eintreffen und wieder entfernt werden.
+ */
+class ExamStatsServiceTest {
+
+    private static final long EXAM = 7L;
+
+    private final ExamStatsService stats = new ExamStatsService(null, null, null, false, 0, 0);
+
+    @Test
+    void matchesFullRecomputationAfterAddsAndRemoves() {
+        Random random = new Random(42);
+        List<int[]> grades = new ArrayList<>(); // personId, grade
+        for (int person = 1; person <= 300; person++) {
+            int grade = 1 + random.nextInt(6);
+            // Estimate first for some persons, result first for others
+            if (person % 2 == 0) {
+                stats.applyEstimate(EXAM, (long) person, EstimateSlot.AFTER_EXAM, clamp(grade + 1), 1);
+                stats.applyResult(EXAM, (long) person, grade, 1);
+            } else {
+                stats.applyResult(EXAM, (long) person, grade, 1);
+                stats.applyEstimate(EXAM, (long) person, EstimateSlot.AFTER_EXAM, clamp(grade + 1), 1);
+            }
+            grades.add(new int[] {person, grade});
+        }
+        for (int i = 0; i < grades.size(); i += 3) {
+            int[] removed = grades.get(i);
+            stats.applyResult(EXAM, (long) removed[0], removed[1], -1);
+        }
+        grades.removeIf(row -> (row[0] - 1) % 3 == 0);
+
+        ExamStats result = stats.getStats(EXAM);
+        double mean = grades.stream().mapToInt(row -> row[1]).average().orElseThrow();
+        double variance = grades.stream().mapToDouble(row -> (row[1] - mean) * (row[1] - mean)).sum() / grades.size();
+        int[] sorted = grades.stream().mapToInt(row -> row[1]).sorted().toArray();
+        double median = (sorted[(sorted.length - 1) / 2] + sorted[sorted.length / 2]) / 2.0;
+
+        assertThat(result.results()).isEqualTo(grades.size());
+        assertThat(result.mean()).isCloseTo(mean, within(1e-9));
+        assertThat(result.standardDeviation()).isCloseTo(Math.sqrt(variance), within(1e-9));
+        assertThat(result.median()).isEqualTo(median);
+
+        // Every remaining result is paired with an estimate one grade higher, except when clamped at 6
+        long clamped = grades.stream().filter(row -> row[1] == 6).count();
+        ExamStats.EstimateAccuracy after = result.estimates().get(EstimateSlot.AFTER_EXAM.ordinal());
+        assertThat(after.estimates()).isEqualTo(300);
+        assertThat(after.pairs()).isEqualTo(grades.size());
+        assertThat(after.meanError()).isCloseTo((double) (grades.size() - clamped) / grades.size(), within(1e-9));
+    }
+
+    @Test
+    void emptyExamHasNoMeanAndRemovedEstimatesLeaveNoPairs() {
+        assertThat(stats.getStats(EXAM).mean()).isNull();
+
+        stats.applyResult(EXAM, 1L, 2, 1);
+        stats.applyEstimate(EXAM, 1L, EstimateSlot.BEFORE_EXAM, 4, 1);
+        assertThat(stats.getStats(EXAM).estimates().get(0).meanAbsoluteError()).isEqualTo(2.0);
+
+        stats.applyEstimate(EXAM, 1L, EstimateSlot.BEFORE_EXAM, 4, -1);
+        ExamStats.EstimateAccuracy before = stats.getStats(EXAM).estimates().get(0);
+        assertThat(before.pairs()).isZero();
+        assertThat(before.meanError()).isNull();
+        assertThat(stats.getStats(EXAM).histogram()).containsEntry(2, 1L);
+    }
+
+    private static int clamp(int grade) {
+        return Math.min(6, grade);
+    }
+}
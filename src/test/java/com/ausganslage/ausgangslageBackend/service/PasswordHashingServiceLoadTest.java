@@ -0,0 +1,84 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Login-Ansturm gegen den begrenzten BCrypt-Executor: es dürfen nie mehr
+ * Hashes parallel laufen als konfiguriert, überzählige Anfragen werden
+ * mit 503 abgewiesen statt zu warten.
+ */
+class PasswordHashingServiceLoadTest {
+
+    private static final int THREADS = 2;
+    private static final int QUEUE = 4;
+    private static final int CLIENTS = 64;
+
+    private final PasswordHashingService service = new PasswordHashingService(12, THREADS, QUEUE, 30_000, 2);
+    private final ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+        service.shutdown();
+    }
+
+    @Test
+    void rejectsOverflowAndNeverExceedsPoolSize() throws Exception {
+        String hash = new BCryptPasswordEncoder(12).encode("password123");
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            futures.add(clients.submit(() -> {
+                start.await();
+                try {
+                    assertThat(service.verify("password123", hash).matches()).isTrue();
+                    accepted.incrementAndGet();
+                } catch (ServiceUnavailableException e) {
+                    rejected.incrementAndGet();
+                    assertThat(e.getRetryAfterSeconds()).isEqualTo(2);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+
+        PasswordHashingService.Stats stats = service.stats();
+        assertThat(accepted.get() + rejected.get()).isEqualTo(CLIENTS);
+        assertThat(accepted.get()).isGreaterThanOrEqualTo(THREADS);
+        // Waiting callers would all be served eventually; only an immediate rejection leaves some unserved
+        assertThat(rejected.get()).isPositive();
+        assertThat(stats.rejected()).isEqualTo(rejected.get());
+        assertThat(stats.largestPoolSize()).isLessThanOrEqualTo(THREADS);
+    }
+
+    @Test
+    void upgradesHashesCreatedWithLowerCost() throws Exception {
+        String weak = new BCryptPasswordEncoder(4).encode("password123");
+
+        PasswordHashingService.Verification verification = service.verify("password123", weak);
+
+        assertThat(verification.matches()).isTrue();
+        assertThat(verification.upgradedHash()).startsWith("$2a$12$");
+        assertThat(service.verify("password123", verification.upgradedHash()).upgradedHash()).isNull();
+    }
+}
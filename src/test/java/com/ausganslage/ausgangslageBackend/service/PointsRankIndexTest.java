@@ -0,0 +1,111 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rang und Top-K müssen nach beliebigen Änderungen mit einer Sortierung
+ * aller Punktestände übereinstimmen, Gleichstände inklusive. Extreme
+ * Punktestände dürfen den Index weder blockieren noch unbegrenzt wachsen
+ * lassen: sie landen im obersten bzw. untersten Bucket.
+ */
+class PointsRankIndexTest {
+
+    private final PointsRankIndex index = new PointsRankIndex();
+
+    @Test
+    @Timeout(5)
+    void clampsHugeAndNegativeTotals() {
+        index.add(1L, 10);
+        index.add(2L, Long.MAX_VALUE);
+        index.add(3L, PointsRankIndex.MAX_SLOT + 1L);
+        index.add(4L, -5);
+
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.rankOf(Long.MAX_VALUE)).isEqualTo(1);
+        assertThat(index.rankOf(10)).isEqualTo(3);
+        assertThat(index.rankOf(0)).isEqualTo(4);
+
+        Iterator<Map.Entry<Integer, TreeSet<Long>>> it = index.descending();
+        Map.Entry<Integer, TreeSet<Long>> top = it.next();
+        assertThat(top.getKey()).isEqualTo(PointsRankIndex.MAX_SLOT);
+        assertThat(top.getValue()).containsExactly(2L, 3L);
+
+        index.move(2L, Long.MAX_VALUE, 20);
+        assertThat(index.rankOf(20)).isEqualTo(2);
+        index.remove(3L, PointsRankIndex.MAX_SLOT + 1L);
+        assertThat(index.rankOf(20)).isEqualTo(1);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void ranksAndTopKMatchSortingAllTotals() {
+        Random random = new Random(42);
+        Map<Long, Long> points = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            long person = 1 + random.nextInt(500);
+            // Multiples of ten like real totals, so ties are common; some grow past the initial capacity
+            long total = 10L * random.nextInt(random.nextInt(10) == 0 ? 1_000 : 50);
+            Long current = points.get(person);
+            if (current == null) {
+                index.add(person, total);
+                points.put(person, total);
+            } else if (random.nextInt(5) == 0) {
+                index.remove(person, current);
+                points.remove(person);
+            } else {
+                index.move(person, current, total);
+                points.put(person, total);
+            }
+        }
+
+        List<Map.Entry<Long, Long>> sorted = new ArrayList<>(points.entrySet());
+        sorted.sort(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+        List<Ranked> expected = new ArrayList<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            boolean tie = i > 0 && sorted.get(i).getValue().equals(sorted.get(i - 1).getValue());
+            expected.add(new Ranked(sorted.get(i).getKey(), tie ? expected.get(i - 1).rank() : i + 1));
+        }
+
+        assertThat(index.size()).isEqualTo(points.size());
+        for (Ranked row : expected) {
+            assertThat(index.rankOf(points.get(row.personId()))).as("rank of person " + row.personId())
+                    .isEqualTo(row.rank());
+        }
+        for (int k : new int[] {1, 10, 37, points.size()}) {
+            assertThat(top(k)).as("top " + k).containsExactlyElementsOf(expected.subList(0, k));
+        }
+    }
+
+    private record Ranked(long personId, int rank) {}
+
+    // Same walk as LeaderboardService.collect: ids per bucket ascending, ties share a rank
+    private List<Ranked> top(int limit) {
+        List<Ranked> entries = new ArrayList<>();
+        int rank = 1;
+        Iterator<Map.Entry<Integer, TreeSet<Long>>> it = index.descending();
+        while (it.hasNext() && entries.size() < limit) {
+            TreeSet<Long> bucket = it.next().getValue();
+            for (Long personId : bucket) {
+                if (entries.size() >= limit) {
+                    break;
+                }
+                entries.add(new Ranked(personId, rank));
+            }
+            rank += bucket.size();
+        }
+        return entries;
+    }
+}
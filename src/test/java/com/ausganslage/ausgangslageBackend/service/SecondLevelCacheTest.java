@@ -0,0 +1,77 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.model.Exam;
+import com.ausganslage.ausgangslageBackend.repository.ExamRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Misst Datenbank-Roundtrips für wiederholte Exam-Lesezugriffe per ID mit
+ * und ohne Second-Level-Cache und prüft, dass Änderungen den Cache
+ * aktualisieren.
+ */
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    private static final int READS = 200;
+
+    @Autowired
+    private ExamRepository examRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
+    @Test
+    void repeatedReadsByIdSkipTheDatabase() {
+        Exam exam = new Exam();
+        exam.setTitle("Cache");
+        exam.setDate(LocalDate.now().plusDays(3));
+        Long id = examRepository.save(exam).getId();
+
+        // Baseline: evicting before every read forces a SELECT each time
+        cacheStatsService.reset();
+        for (int i = 0; i < READS; i++) {
+            entityManagerFactory.getCache().evict(Exam.class, id);
+            assertThat(examRepository.findById(id)).isPresent();
+        }
+        long uncachedStatements = cacheStatsService.stats().preparedStatements();
+
+        cacheStatsService.reset();
+        for (int i = 0; i < READS; i++) {
+            assertThat(examRepository.findById(id)).isPresent();
+        }
+        CacheStatsService.CacheStats cached = cacheStatsService.stats();
+
+        assertThat(uncachedStatements).as("statements for %d uncached reads", READS)
+                .isGreaterThanOrEqualTo(READS);
+        assertThat(cached.preparedStatements()).as("statements for %d cached reads", READS)
+                .isLessThanOrEqualTo(1);
+        assertThat(cached.secondLevelHits()).as("second-level hits, hit ratio %.2f", cached.hitRatio())
+                .isGreaterThanOrEqualTo(READS - 1);
+    }
+
+    @Test
+    void writesAreVisibleThroughTheCache() {
+        Exam exam = new Exam();
+        exam.setTitle("Vorher");
+        exam.setDate(LocalDate.now().plusDays(3));
+        Exam saved = examRepository.save(exam);
+        assertThat(examRepository.findById(saved.getId())).get().extracting(Exam::getTitle).isEqualTo("Vorher");
+
+        saved.setTitle("Nachher");
+        examRepository.save(saved);
+        assertThat(examRepository.findById(saved.getId())).get().extracting(Exam::getTitle).isEqualTo("Nachher");
+
+        examRepository.deleteById(saved.getId());
+        assertThat(examRepository.findById(saved.getId())).isEmpty();
+    }
+}
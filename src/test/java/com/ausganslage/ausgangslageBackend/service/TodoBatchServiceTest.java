@@ -0,0 +1,115 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.TestData;
+import com.ausganslage.ausgangslageBackend.dto.TodoBatchPatch;
+import com.ausganslage.ausgangslageBackend.dto.TodoBatchReport;
+import com.ausganslage.ausgangslageBackend.model.Person;
+import com.ausganslage.ausgangslageBackend.model.Todo;
+import com.ausganslage.ausgangslageBackend.repository.TodoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Batch-Änderungen an Todos müssen mit einer festen Anzahl SQL-Statements
+ * auskommen, für jede angefragte ID ein Ergebnis liefern und ETag-Zähler
+ * sowie Suchindex nachführen, obwohl JPQL-Massenupdates die
+ * Entity-Listener umgehen.
+ */
+@SpringBootTest
+class TodoBatchServiceTest {
+
+    private static final int TODOS = 300;
+
+    @Autowired
+    private TodoBatchService batchService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private TodoSearchIndex searchIndex;
+
+    @Autowired
+    private AggregateVersions versions;
+
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
+    private Long personId;
+    private List<Long> todoIds;
+
+    @BeforeEach
+    void seed() {
+        Person person = testData.person("Batch");
+        personId = person.getId();
+
+        List<Todo> todos = new ArrayList<>();
+        for (int i = 0; i < TODOS; i++) {
+            Todo todo = new Todo();
+            todo.setTitle("Batchaufgabe " + i);
+            // Every third todo is already done
+            todo.setCompleted(i % 3 == 0);
+            todo.setPerson(person);
+            todos.add(todo);
+        }
+        todoIds = todoRepository.saveAll(todos).stream().map(Todo::getId).toList();
+    }
+
+    @AfterEach
+    void cleanup() {
+        testData.cleanup();
+    }
+
+    @Test
+    void completeAllWritesOnceAndBumpsTheETag() throws Exception {
+        long version = versions.version(AggregateVersions.personTodos(personId));
+
+        cacheStatsService.reset();
+        TodoBatchReport report = batchService.completeAll(personId);
+        long statements = cacheStatsService.stats().preparedStatements();
+
+        assertThat(report.changed()).isEqualTo(TODOS - TODOS / 3);
+        assertThat(report.outcomes()).allMatch(outcome -> outcome.status() == TodoBatchReport.Status.UPDATED);
+        // Person lookup, open todos, one update
+        assertThat(statements).as("SQL statements for complete-all of " + TODOS + " todos").isLessThanOrEqualTo(3);
+        assertThat(todoRepository.findByPersonId(personId)).allMatch(Todo::isCompleted);
+        assertThat(versions.version(AggregateVersions.personTodos(personId))).isGreaterThan(version);
+    }
+
+    @Test
+    void updateAndDeleteReportEveryRequestedId() throws Exception {
+        Long open = todoIds.get(1);
+        Long done = todoIds.get(0);
+        Long missing = Long.MAX_VALUE;
+
+        TodoBatchReport completed = batchService.update(
+                new TodoBatchPatch(List.of(open, done, missing, open), null, true));
+        assertThat(completed.requested()).isEqualTo(3);
+        assertThat(completed.outcomes()).extracting(TodoBatchReport.Outcome::status).containsExactly(
+                TodoBatchReport.Status.UPDATED, TodoBatchReport.Status.UNCHANGED, TodoBatchReport.Status.NOT_FOUND);
+
+        String title = "Umbenannt " + UUID.randomUUID();
+        batchService.update(new TodoBatchPatch(List.of(open, done), title, null));
+        assertThat(todoRepository.findById(open)).get().extracting(Todo::getTitle, Todo::isCompleted)
+                .containsExactly(title, true);
+        assertThat(searchIndex.search(title, false, 10)).containsExactlyInAnyOrder(open, done);
+
+        TodoBatchReport deleted = batchService.delete(List.of(open, missing));
+        assertThat(deleted.outcomes()).extracting(TodoBatchReport.Outcome::status).containsExactly(
+                TodoBatchReport.Status.DELETED, TodoBatchReport.Status.NOT_FOUND);
+        assertThat(todoRepository.existsById(open)).isFalse();
+        assertThat(searchIndex.search(title, false, 10)).containsExactly(done);
+    }
+}
@@ -0,0 +1,83 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.model.Todo;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Der Trigramm-Index muss genau die Treffer von {@code LIKE '%q%'} liefern,
+ * auch nach Änderungen und Löschungen.
+ */
+class TodoSearchIndexTest {
+
+    private static final String[] WORDS = {
+        "einkaufen", "Mathe", "lernen", "Prüfung", "vorbereiten", "Hausaufgaben", "abgeben",
+        "Bio", "Referat", "Zusammenfassung", "schreiben", "Deutsch", "Aufsatz", "üben"
+    };
+
+    private final TodoSearchIndex index = new TodoSearchIndex(null);
+
+    @Test
+    void matchesSubstringSearchAfterUpdatesAndDeletes() {
+        Random random = new Random(42);
+        Map<Long, String> expected = new HashMap<>();
+        for (long id = 1; id <= 20_000; id++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+            index.put(todo(id, title));
+            expected.put(id, title);
+        }
+        for (long id = 1; id <= 20_000; id += 7) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + id;
+            index.put(todo(id, title));
+            expected.put(id, title);
+        }
+        for (long id = 3; id <= 20_000; id += 11) {
+            index.remove(id);
+            expected.remove(id);
+        }
+
+        for (String query : List.of("mathe", "PRÜF", "ung vor", "en", "e", "1234", "xyz", "aufsatz üben")) {
+            List<Long> hits = index.search(query, false, Integer.MAX_VALUE);
+            assertThat(hits).as(query).containsExactlyInAnyOrderElementsOf(bruteForce(expected, query));
+        }
+        assertThat(index.stats().documents()).isEqualTo(expected.size());
+        assertThat(index.stats().estimatedBytes()).isPositive();
+    }
+
+    @Test
+    void rankedSearchPrefersPrefixThenWordStartThenShortTitles() {
+        index.put(todo(1, "Hausaufgaben Mathe"));
+        index.put(todo(2, "Mathematik lernen"));
+        index.put(todo(3, "Mathe"));
+        index.put(todo(4, "Prüfung Mathe vorbereiten"));
+
+        assertThat(index.search("mathe", true, 3)).containsExactly(3L, 2L, 1L);
+        assertThat(index.search("mathe", false, 2)).hasSize(2);
+    }
+
+    private static List<Long> bruteForce(Map<Long, String> titles, String query) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        List<Long> ids = new ArrayList<>();
+        titles.forEach((id, title) -> {
+            if (title.toLowerCase(Locale.ROOT).contains(needle)) {
+                ids.add(id);
+            }
+        });
+        return ids;
+    }
+
+    private static Todo todo(long id, String title) {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setTitle(title);
+        return todo;
+    }
+}
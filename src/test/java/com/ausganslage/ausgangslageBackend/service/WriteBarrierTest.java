@@ -0,0 +1,80 @@
+package com.ausganslage.ausgangslageBackend.service;
+
+import com.ausganslage.ausgangslageBackend.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Beide Seiten der Schranke warten nur begrenzt: ein Schreiber läuft nach
+ * seiner Wartezeit weiter und macht den laufenden Neuaufbau ungültig, ein
+ * Neuaufbau gibt auf, wenn Schreiber nicht abschliessen.
+ */
+class WriteBarrierTest {
+
+    @Test
+    void publishesWhenNoWriterInterferes() throws Exception {
+        WriteBarrier barrier = new WriteBarrier("Test", 1000, 1000);
+        barrier.close();
+        try {
+            assertThat(barrier.publish(() -> "neu")).isEqualTo("neu");
+        } finally {
+            barrier.open();
+        }
+    }
+
+    @Test
+    @Timeout(5)
+    void writerStopsWaitingAndInvalidatesTheRead() throws Exception {
+        WriteBarrier barrier = new WriteBarrier("Test", 1000, 50);
+        barrier.close();
+        try {
+            // Outside a transaction the change runs right after entering
+            CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> barrier.runAfterCommit(() -> { }));
+            writer.get(2, TimeUnit.SECONDS);
+
+            assertThatThrownBy(() -> barrier.publish(() -> "veraltet"))
+                    .isInstanceOf(ServiceUnavailableException.class);
+        } finally {
+            barrier.open();
+        }
+
+        // The next read starts clean
+        barrier.close();
+        try {
+            assertThat(barrier.publish(() -> "neu")).isEqualTo("neu");
+        } finally {
+            barrier.open();
+        }
+    }
+
+    @Test
+    @Timeout(5)
+    void readGivesUpWhenWritersDoNotFinish() throws Exception {
+        WriteBarrier barrier = new WriteBarrier("Test", 50, 1000);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> barrier.runAfterCommit(() -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        entered.await();
+
+        assertThatThrownBy(barrier::close).isInstanceOf(ServiceUnavailableException.class);
+
+        release.countDown();
+        writer.get(2, TimeUnit.SECONDS);
+        barrier.close();
+        barrier.open();
+    }
+}